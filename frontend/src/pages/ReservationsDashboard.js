@@ -9,6 +9,8 @@ const ReservationsDashboard = () => {
   const location = useLocation();
   
   const [reservations, setReservations] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [success, setSuccess] = useState(location.state?.success || '');
@@ -20,14 +22,19 @@ const ReservationsDashboard = () => {
     loadReservations();
   }, [view]);
   
+  const fetchPage = (cursor) => {
+    return view === 'upcoming' ? 
+      ReservationService.getUpcomingReservations(cursor) : 
+      ReservationService.getUserReservations(cursor);
+  };
+  
   const loadReservations = async () => {
     setLoading(true);
     try {
-      const response = view === 'upcoming' ? 
-        await ReservationService.getUpcomingReservations() : 
-        await ReservationService.getUserReservations();
+      const response = await fetchPage();
       
       setReservations(response.data);
+      setNextCursor(ReservationService.nextCursor(response));
       setError('');
     } catch (err) {
       setError('Failed to load reservations. Please try again later.');
@@ -37,6 +44,21 @@ const ReservationsDashboard = () => {
     }
   };
   
+  const loadMoreReservations = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await fetchPage(nextCursor);
+      
+      setReservations((current) => [...current, ...response.data]);
+      setNextCursor(ReservationService.nextCursor(response));
+    } catch (err) {
+      setError('Failed to load more reservations. Please try again later.');
+      console.error('Error loading more reservations:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+  
   const handleCancelReservation = async (reservationId) => {
     if (!window.confirm('Are you sure you want to cancel this reservation?')) {
       return;
@@ -193,6 +215,13 @@ const ReservationsDashboard = () => {
           </tbody>
         </Table>
       )}
+      {!loading && nextCursor && (
+        <div className="text-center mb-4">
+          <Button variant="outline-secondary" onClick={loadMoreReservations} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </Button>
+        </div>
+      )}
       {selectedReservation && (
       <ReservationQRCode 
         reservation={selectedReservation}
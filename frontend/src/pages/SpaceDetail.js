@@ -2,8 +2,11 @@ import React, { useState, useEffect } from 'react';
 import { Container, Row, Col, Card, Button, Badge, ListGroup } from 'react-bootstrap';
 import { useParams, useNavigate, Link } from 'react-router-dom';
 import SpaceService from '../services/SpaceService';
+import ReservationService from '../services/ReservationService';
 import AuthService from '../services/AuthService';
 
+const AVAILABILITY_DAYS = 7;
+
 const SpaceDetail = () => {
   const { id } = useParams();
   const navigate = useNavigate();
@@ -11,6 +14,8 @@ const SpaceDetail = () => {
   const [space, setSpace] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
+  // Free slots per day for the coming week, for signed-in users
+  const [week, setWeek] = useState([]);
   
   useEffect(() => {
     const loadSpace = async () => {
@@ -30,6 +35,25 @@ const SpaceDetail = () => {
     loadSpace();
   }, [id]);
   
+  useEffect(() => {
+    if (!AuthService.isAuthenticated()) {
+      return;
+    }
+    const start = new Date();
+    const end = new Date();
+    end.setDate(end.getDate() + AVAILABILITY_DAYS - 1);
+    ReservationService.getAvailabilityMatrix({
+      spaceIds: [Number(id)],
+      startDate: start.toISOString().split('T')[0],
+      endDate: end.toISOString().split('T')[0]
+    })
+      .then(response => setWeek(response.data.length > 0 ? response.data[0].days : []))
+      .catch(err => {
+        setWeek([]);
+        console.error('Error loading availability:', err);
+      });
+  }, [id]);
+  
   const handleReservation = () => {
     if (!AuthService.isAuthenticated()) {
       // Redirect to login if not authenticated
@@ -139,6 +163,25 @@ const SpaceDetail = () => {
                 ))}
               </ListGroup>
               
+              {week.length > 0 && (
+                <>
+                  <h5>Availability This Week</h5>
+                  <ListGroup className="mb-4">
+                    {week.map(day => {
+                      const free = day.slots.filter(slot => slot.available).length;
+                      return (
+                        <ListGroup.Item key={day.date} className="d-flex justify-content-between">
+                          <span>{new Date(`${day.date}T00:00`).toLocaleDateString(undefined, { weekday: 'long', month: 'short', day: 'numeric' })}</span>
+                          <Badge bg={free > 0 ? 'success' : 'dark'}>
+                            {free > 0 ? `${free} of ${day.slots.length} slots free` : 'Fully booked'}
+                          </Badge>
+                        </ListGroup.Item>
+                      );
+                    })}
+                  </ListGroup>
+                </>
+              )}
+              
               <Button 
                 variant="primary" 
                 size="lg" 
@@ -2,6 +2,8 @@ import React, { useState, useEffect } from 'react';
 import { Container, Row, Col, Card, Button, Form, InputGroup, Accordion, Badge } from 'react-bootstrap';
 import { Link } from 'react-router-dom';
 import SpaceService from '../services/SpaceService';
+import ReservationService from '../services/ReservationService';
+import AuthService from '../services/AuthService';
 
 const SpaceList = () => {
   const [spaces, setSpaces] = useState([]);
@@ -9,6 +11,8 @@ const SpaceList = () => {
   const [error, setError] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
   const [searchBy, setSearchBy] = useState('name'); // 'name' or 'location'
+  // Free slot count today per space id, for signed-in users
+  const [freeToday, setFreeToday] = useState({});
   
   // Filter states
   const [filters, setFilters] = useState({
@@ -21,6 +25,32 @@ const SpaceList = () => {
     loadSpaces();
   }, []);
   
+  // One availability request for every listed space
+  useEffect(() => {
+    if (spaces.length === 0 || !AuthService.isAuthenticated()) {
+      setFreeToday({});
+      return;
+    }
+    const today = new Date().toISOString().split('T')[0];
+    ReservationService.getAvailabilityMatrix({
+      spaceIds: spaces.map(space => space.id),
+      startDate: today,
+      endDate: today
+    })
+      .then(response => {
+        const counts = {};
+        response.data.forEach(row => {
+          counts[row.spaceId] = row.days[0].slots.filter(slot => slot.available).length;
+        });
+        setFreeToday(counts);
+      })
+      .catch(err => {
+        // The list is still usable without the availability badges
+        setFreeToday({});
+        console.error('Error loading availability:', err);
+      });
+  }, [spaces]);
+  
   const loadSpaces = async () => {
     setLoading(true);
     try {
@@ -250,6 +280,11 @@ const SpaceList = () => {
                     >
                       {space.noiseLevel?.toLowerCase()}
                     </Badge>
+                    {freeToday[space.id] !== undefined && (
+                      <Badge bg={freeToday[space.id] > 0 ? 'success' : 'dark'} className="ms-1">
+                        {freeToday[space.id] > 0 ? `${freeToday[space.id]} slots free today` : 'Fully booked today'}
+                      </Badge>
+                    )}
                   </div>
                   
                   <Card.Text>
@@ -2,13 +2,13 @@ import api from './ApiService';
 
 class ReservationService {
   // Get user's reservations
-  getUserReservations() {
-    return api.get('/reservations');
+  getUserReservations(cursor, size) {
+    return api.get('/reservations', { params: { cursor, size } });
   }
   
   // Get user's upcoming reservations
-  getUpcomingReservations() {
-    return api.get('/reservations/upcoming');
+  getUpcomingReservations(cursor, size) {
+    return api.get('/reservations/upcoming', { params: { cursor, size } });
   }
 
   // Create a new reservation
@@ -31,9 +31,23 @@ class ReservationService {
     return api.post('/reservations/availability', { spaceId, date });
   }
   
+  // Check availability for several study spaces over a date range in one request.
+  // Pass either spaceIds or filter fields (type, capacity, noiseLevel).
+  getAvailabilityMatrix({ spaceIds, type, capacity, noiseLevel, startDate, endDate }) {
+    return api.post('/reservations/availability/matrix', {
+      spaceIds, type, capacity, noiseLevel, startDate, endDate
+    });
+  }
+  
   // Get reservations for a specific study space
-  getSpaceReservations(spaceId) {
-    return api.get(`/reservations/space/${spaceId}`);
+  getSpaceReservations(spaceId, cursor, size) {
+    return api.get(`/reservations/space/${spaceId}`, { params: { cursor, size } });
+  }
+  
+  // Reservation listings are paginated by cursor. The cursor for the next page is returned in the
+  // X-Next-Cursor response header and is absent on the last page.
+  nextCursor(response) {
+    return response.headers['x-next-cursor'] || null;
   }
 }
 
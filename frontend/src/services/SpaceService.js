@@ -30,6 +30,22 @@ class SpaceService {
       });
   }
 
+  // Find spaces that are free for the whole time window, optionally filtered
+  findAvailableSpaces({ date, startTime, endTime, type, capacity, noiseLevel }, page = 0, size = 9) {
+    let queryParams = new URLSearchParams({ date, startTime, endTime, page, size });
+    
+    if (type) queryParams.append('type', type);
+    if (capacity) queryParams.append('capacity', capacity);
+    if (noiseLevel) queryParams.append('noiseLevel', noiseLevel);
+    
+    console.log(`Searching available spaces with params: ${queryParams.toString()}`);
+    return api.get(`/spaces/available?${queryParams.toString()}`)
+      .catch(error => {
+        console.error(`Error searching available spaces:`, error.response || error);
+        throw error;
+      });
+  }
+
   // Search spaces by location
   searchSpacesByLocation(location) {
     console.log(`Searching spaces by location '${location}' from: ${api.defaults.baseURL}/spaces/search?location=${location}`);
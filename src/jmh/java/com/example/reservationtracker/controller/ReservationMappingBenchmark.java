@@ -0,0 +1,69 @@
+package com.example.reservationtracker.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.reservationtracker.dto.ReservationDto.ReservationResponse;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity to DTO mapping used by every reservation endpoint
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationMappingBenchmark {
+
+    @Param({"20", "500"})
+    public int rows;
+
+    private List<Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("benchmark-user");
+        StudySpace space = new StudySpace();
+        space.setId(3L);
+        space.setName("Quiet Reading Room");
+
+        reservations = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setId((long) i);
+            reservation.setUser(user);
+            reservation.setStudySpace(space);
+            reservation.setDate(LocalDate.of(2030, 1, 1).plusDays(i % 30));
+            reservation.setStartTime(LocalTime.of(8 + i % 10, 0));
+            reservation.setEndTime(LocalTime.of(9 + i % 10, 0));
+            reservations.add(reservation);
+        }
+    }
+
+    @Benchmark
+    public List<ReservationResponse> mapToDto() {
+        return reservations.stream()
+                .map(ReservationController::mapToDto)
+                .collect(Collectors.toList());
+    }
+}
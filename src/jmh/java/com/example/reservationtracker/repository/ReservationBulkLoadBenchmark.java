@@ -0,0 +1,135 @@
+package com.example.reservationtracker.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.reservationtracker.ReservationTrackerApplication;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk load of 100k reservations through {@code saveAll}, 1000 per transaction. {@code batchSize = 1}
+ * matches the old IDENTITY ids, where every insert was its own statement; larger sizes are only
+ * possible with the pooled table ids.
+ * <p>
+ * By default it runs against in-memory H2, which executes a batch row by row without any network
+ * round trip, so both sizes perform about the same there. To see the real difference point it at a
+ * scratch MySQL database (all reservations are deleted between iterations):
+ * {@code -Djmh.args="ReservationBulkLoad -jvmArgsAppend -Dbenchmark.jdbc-url=jdbc:mysql://...&rewriteBatchedStatements=true"}
+ * plus {@code -Dbenchmark.jdbc-username} and {@code -Dbenchmark.jdbc-password}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ReservationBulkLoadBenchmark {
+
+    private static final int RESERVATIONS = 100_000;
+    private static final int PER_TRANSACTION = 1_000;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ReservationRepository reservationRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+    private StudySpace space;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        String url = System.getProperty("benchmark.jdbc-url",
+                "jdbc:h2:mem:bulkload-" + batchSize + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + System.getProperty("benchmark.jdbc-username", "sa"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.jdbc-password", ""),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.reservationtracker=WARN"));
+        if (url.startsWith("jdbc:mysql:")) {
+            args.add("--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect");
+        }
+        context = new SpringApplicationBuilder(ReservationTrackerApplication.class).run(args.toArray(String[]::new));
+        reservationRepository = context.getBean(ReservationRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User newUser = new User();
+        newUser.setUsername("bulk-load-" + System.nanoTime());
+        newUser.setEmail(newUser.getUsername() + "@example.com");
+        newUser.setPassword("not-used");
+        user = context.getBean(UserRepository.class).save(newUser);
+        space = context.getBean(StudySpaceRepository.class).findAll().get(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearReservations() {
+        jdbcTemplate.update("DELETE FROM reservations");
+    }
+
+    @Benchmark
+    public int bulkLoad() {
+        int inserted = 0;
+        while (inserted < RESERVATIONS) {
+            int first = inserted;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Reservation> reservations = new ArrayList<>(PER_TRANSACTION);
+                for (int i = first; i < first + PER_TRANSACTION; i++) {
+                    reservations.add(reservation(i));
+                }
+                reservationRepository.saveAll(reservations);
+            });
+            inserted += PER_TRANSACTION;
+        }
+        return inserted;
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private Reservation reservation(int index) {
+        LocalTime startTime = LocalTime.of(8, 0).plusMinutes(30L * (index % SLOTS_PER_DAY));
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setStudySpace(space);
+        reservation.setDate(FIRST_DATE.plusDays(index / SLOTS_PER_DAY));
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(startTime.plusMinutes(30));
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        return reservation;
+    }
+}
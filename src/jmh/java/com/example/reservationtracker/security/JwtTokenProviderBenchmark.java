@@ -0,0 +1,74 @@
+package com.example.reservationtracker.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.reservationtracker.model.User;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification cost. {@code legacy*} reproduces the previous provider, which
+ * rebuilt the key and parser on every call and parsed each token twice per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider uncachedProvider;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = new JwtTokenProvider(SECRET, 86_400_000L, 10_000, new SimpleMeterRegistry());
+        uncachedProvider = new JwtTokenProvider(SECRET, 86_400_000L, 0, new SimpleMeterRegistry());
+        principal = new UserPrincipal(42L, "benchmark-user", "bench@example.com", null, User.Role.USER);
+        token = cachingProvider.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken(principal);
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Key validationKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parserBuilder().setSigningKey(validationKey).build().parseClaimsJws(token);
+        Key parsingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(parsingKey).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims parseOnceUncached() {
+        return uncachedProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims parseOnceCached() {
+        return cachingProvider.parseToken(token);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.reservationtracker.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.reservationtracker.dto.ReservationDto.TimeSlot;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.repository.ReservationSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot computation for the availability endpoint and the booking overlap check. {@code legacy*}
+ * reproduces the previous controller code: 24 TimeSlot objects marked by a nested loop over all
+ * reservations, and a linear isOverlapping scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    private static final int OPEN = LocalTime.of(8, 0).toSecondOfDay();
+    private static final int CLOSE = LocalTime.of(20, 0).toSecondOfDay();
+    private static final int BUCKET = 5 * 60;
+
+    @Param({"4", "16", "64"})
+    public int reservationsPerDay;
+
+    private List<ReservationSlot> slots;
+    private List<Reservation> reservations;
+    private ReservationIntervalIndex.DaySchedule schedule;
+    private LocalTime probeStart;
+    private LocalTime probeEnd;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        slots = new ArrayList<>();
+        reservations = new ArrayList<>();
+        for (int i = 0; i < reservationsPerDay; i++) {
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(5L * random.nextInt(140));
+            LocalTime end = start.plusMinutes(15L * (1 + random.nextInt(4)));
+            long id = i + 1;
+            slots.add(new BenchmarkSlot(id, start, end));
+
+            Reservation reservation = new Reservation();
+            reservation.setId(id);
+            reservation.setStartTime(start);
+            reservation.setEndTime(end);
+            reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+            reservations.add(reservation);
+        }
+        slots.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        schedule = ReservationIntervalIndex.DaySchedule.of(slots, System.nanoTime());
+        schedule.availability(OPEN, CLOSE, BUCKET);
+        probeStart = LocalTime.of(14, 0);
+        probeEnd = LocalTime.of(15, 30);
+    }
+
+    @Benchmark
+    public List<TimeSlot> legacyNestedLoopSlots() {
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        LocalTime slotStart = LocalTime.of(8, 0);
+        while (slotStart.isBefore(LocalTime.of(20, 0))) {
+            LocalTime slotEnd = slotStart.plusMinutes(30);
+            timeSlots.add(new TimeSlot(slotStart, slotEnd, true));
+            slotStart = slotEnd;
+        }
+        for (Reservation reservation : reservations) {
+            if (reservation.getStatus() == Reservation.ReservationStatus.CONFIRMED) {
+                for (TimeSlot slot : timeSlots) {
+                    if (legacyIsOverlapping(slot.getStartTime(), slot.getEndTime(), reservation)) {
+                        slot.setAvailable(false);
+                    }
+                }
+            }
+        }
+        return timeSlots;
+    }
+
+    @Benchmark
+    public List<TimeSlot> bitsetSlotsFromScratch() {
+        return DayAvailability.of(schedule, OPEN, CLOSE, BUCKET).toTimeSlots(30);
+    }
+
+    @Benchmark
+    public List<TimeSlot> bitsetSlotsCached() {
+        return schedule.availability(OPEN, CLOSE, BUCKET).toTimeSlots(30);
+    }
+
+    @Benchmark
+    public boolean legacyOverlapScan() {
+        for (Reservation reservation : reservations) {
+            if (legacyIsOverlapping(probeStart, probeEnd, reservation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexOverlapCheck() {
+        return schedule.overlaps(probeStart.toSecondOfDay(), probeEnd.toSecondOfDay());
+    }
+
+    @Benchmark
+    public boolean bitsetRangeCheck() {
+        return schedule.availability(OPEN, CLOSE, BUCKET).isFree(probeStart, probeEnd);
+    }
+
+    private static boolean legacyIsOverlapping(LocalTime start, LocalTime end, Reservation reservation) {
+        return !(end.compareTo(reservation.getStartTime()) <= 0 ||
+                 start.compareTo(reservation.getEndTime()) >= 0);
+    }
+
+    private record BenchmarkSlot(Long id, LocalTime startTime, LocalTime endTime) implements ReservationSlot {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+    }
+}
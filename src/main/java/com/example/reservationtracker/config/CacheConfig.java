@@ -0,0 +1,19 @@
+package com.example.reservationtracker.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine caches for the study space catalogue, configured by spring.cache in application.yml.
+ * Hit and miss counts are published as the cache.gets metric.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Study spaces by id; unknown ids are cached as well
+    public static final String SPACES = "spaces";
+
+    // Catalogue listings: all spaces, searches, filters and pages. Any change clears the whole cache.
+    public static final String SPACE_LISTS = "space-lists";
+}
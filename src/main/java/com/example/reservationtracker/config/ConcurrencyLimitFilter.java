@@ -0,0 +1,90 @@
+package com.example.reservationtracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests executing at once, so a traffic spike queues briefly here and is
+ * then turned away with 503 instead of piling up on the database connection pool.
+ * <p>
+ * With virtual threads Tomcat no longer bounds concurrency through its thread pool; this limit
+ * takes over that role. It should be somewhat above the Hikari pool size, because cached and
+ * conditional (304) requests never take a connection. A limit of 0 disables the filter.
+ * Asynchronous work that continues after the handler returns (streams, exports) is not counted.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final int limit;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(
+            @Value("${app.request-concurrency-limit:64}") int limit,
+            @Value("${app.request-concurrency-max-wait-ms:500}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.maxWaitMs = maxWaitMs;
+        // Fair, so requests that have waited longest are admitted first
+        this.permits = new Semaphore(Math.max(limit, 0), true);
+        this.rejected = Counter.builder("http.server.requests.rejected")
+                .description("API requests turned away because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.in-flight", permits, p -> this.limit - p.availablePermits())
+                .description("API requests currently holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return limit <= 0 || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Rejected {} {}: {} requests already in flight", request.getMethod(), request.getRequestURI(), limit);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy, please retry shortly\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
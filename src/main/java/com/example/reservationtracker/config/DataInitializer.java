@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.reservationtracker.model.StudySpace;
 import com.example.reservationtracker.model.StudySpace.NoiseLevel;
@@ -19,6 +20,7 @@ public class DataInitializer implements CommandLineRunner {
     private final StudySpaceRepository studySpaceRepository;
     
     @Override
+    @Transactional  // Checks the primary, not a replica, for existing data
     public void run(String... args) {
         log.info("Checking if study spaces need to be initialized...");
         // Only add sample data if no study spaces exist
@@ -0,0 +1,25 @@
+package com.example.reservationtracker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas for read-only transactions; routing is enabled when at least one is configured
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReadReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Connections per replica pool
+    private int replicaPoolSize = 20;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.reservationtracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers who committed a write in the last {@code app.datasource.max-replica-lag-seconds}, so
+ * their reads go to the primary and they see their own bookings straight away. Registered as a
+ * listener on the transaction manager; writes are attributed to the authenticated user.
+ * <p>
+ * Catalogue changes are visible to everyone, so they pin all reads to the primary for the same
+ * window: otherwise a lagging replica could refill the catalogue caches with the old data.
+ * The tracker is per node; with several backend nodes a user's requests should be sticky.
+ */
+@Component
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private final long maxLagNanos;
+    private final Cache<String, Boolean> recentWriters;
+    private volatile long everyoneOnPrimaryUntil = System.nanoTime();
+
+    public ReadYourWritesTracker(@Value("${app.datasource.max-replica-lag-seconds:5}") long maxLagSeconds) {
+        this.maxLagNanos = TimeUnit.SECONDS.toNanos(maxLagSeconds);
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(maxLagSeconds))
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    // Sends every caller's reads to the primary until the replicas have caught up with a shared change
+    public void recordSharedWrite() {
+        everyoneOnPrimaryUntil = System.nanoTime() + maxLagNanos;
+    }
+
+    public boolean requiresPrimary() {
+        if (System.nanoTime() - everyoneOnPrimaryUntil < 0) {
+            return true;
+        }
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.reservationtracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas in turn and everything else to the primary. Callers
+ * that wrote recently (see {@link ReadYourWritesTracker}) stay on the primary until the replicas
+ * have caught up.
+ * <p>
+ * The transaction's read-only flag is only known once the transaction has started, so this must
+ * sit behind a LazyConnectionDataSourceProxy, which defers the lookup to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> replicas;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ReadYourWritesTracker readYourWrites;
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            List<DataSource> replicas,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        targets.keySet().forEach(key -> routed.put((String) key, Counter.builder("datasource.routing.connections")
+                .description("Connections handed out per routing target")
+                .tag("target", (String) key)
+                .register(meterRegistry)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !readYourWrites.requiresPrimary()
+                ? replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()))
+                : PRIMARY;
+        routed.get(key).increment();
+        return key;
+    }
+
+    // Closes the replica pools; the primary pool is a bean of its own
+    public void close() {
+        replicas.forEach(replica -> {
+            if (replica instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close replica pool", e);
+                }
+            }
+        });
+    }
+}
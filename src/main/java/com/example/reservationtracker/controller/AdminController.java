@@ -0,0 +1,101 @@
+package com.example.reservationtracker.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.reservationtracker.dto.AuthDto.RoleRequest;
+import com.example.reservationtracker.dto.SpaceDto.SpaceRequest;
+import com.example.reservationtracker.dto.SpaceDto.SpaceResponse;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.service.ReservationExportService;
+import com.example.reservationtracker.service.ReservationExportService.Format;
+import com.example.reservationtracker.service.StudySpaceService;
+import com.example.reservationtracker.service.UserService;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*") // For development only
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+    
+    private final ReservationExportService reservationExportService;
+    private final StudySpaceService studySpaceService;
+    private final UserService userService;
+    
+    // Reservation dump for utilization reporting, written to the response while it is read
+    @GetMapping("/reservations/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long spaceId,
+            @RequestParam(defaultValue = "csv") String format) {
+        
+        // Reject bad parameters before the response is committed
+        Format exportFormat = Format.fromName(format);
+        reservationExportService.validate(startDate, endDate);
+        
+        String filename = "reservations-" + startDate + "-" + endDate + "." + exportFormat.getExtension();
+        StreamingResponseBody body = output ->
+                reservationExportService.export(exportFormat, startDate, endDate, spaceId, output);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+    
+    @PostMapping("/spaces")
+    public ResponseEntity<SpaceResponse> createSpace(@Valid @RequestBody SpaceRequest request) {
+        StudySpace space = studySpaceService.createSpace(toEntity(request));
+        return new ResponseEntity<>(StudySpaceController.mapToDto(space), HttpStatus.CREATED);
+    }
+    
+    @PutMapping("/spaces/{id}")
+    public ResponseEntity<SpaceResponse> updateSpace(
+            @PathVariable Long id,
+            @Valid @RequestBody SpaceRequest request) {
+        StudySpace space = studySpaceService.updateSpace(id, toEntity(request));
+        return ResponseEntity.ok(StudySpaceController.mapToDto(space));
+    }
+    
+    @DeleteMapping("/spaces/{id}")
+    public ResponseEntity<Void> deleteSpace(@PathVariable Long id) {
+        studySpaceService.deleteSpace(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    // Revokes the user's existing tokens
+    @PutMapping("/users/{id}/role")
+    public ResponseEntity<Void> updateUserRole(
+            @PathVariable Long id,
+            @Valid @RequestBody RoleRequest request) {
+        userService.updateRole(id, request.getRole());
+        return ResponseEntity.noContent().build();
+    }
+    
+    private static StudySpace toEntity(SpaceRequest request) {
+        StudySpace space = new StudySpace();
+        space.setName(request.getName());
+        space.setType(request.getType());
+        space.setLocation(request.getLocation());
+        space.setCapacity(request.getCapacity());
+        space.setEquipment(request.getEquipment());
+        space.setNoiseLevel(request.getNoiseLevel());
+        space.setImageUrl(request.getImageUrl());
+        space.setOpeningTime(request.getOpeningTime());
+        space.setClosingTime(request.getClosingTime());
+        space.setSlotMinutes(request.getSlotMinutes());
+        return space;
+    }
+}
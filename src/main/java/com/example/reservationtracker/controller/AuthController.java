@@ -1,5 +1,6 @@
 package com.example.reservationtracker.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -11,6 +12,8 @@ import com.example.reservationtracker.dto.AuthDto.LoginRequest;
 import com.example.reservationtracker.dto.AuthDto.RegisterRequest;
 import com.example.reservationtracker.service.UserService;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -19,15 +22,19 @@ public class AuthController {
 
     private final UserService userService;
 
+    // Both endpoints hash passwords on a bounded pool and complete asynchronously, so waiting for
+    // BCrypt does not hold a request thread
     @PostMapping("/register")
-    public ResponseEntity<String> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        userService.register(registerRequest);
-        return new ResponseEntity<>("User registered successfully", HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<String>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return userService.register(registerRequest)
+                .thenApply(registered -> new ResponseEntity<>("User registered successfully", HttpStatus.CREATED));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        JwtResponse jwt = userService.login(loginRequest);
-        return ResponseEntity.ok(jwt);
+    public CompletableFuture<ResponseEntity<JwtResponse>> login(
+            @Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
+        return userService.login(loginRequest, request.getRemoteAddr())
+                .thenApply(ResponseEntity::ok);
     }
 }
\ No newline at end of file
@@ -6,17 +6,27 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.example.reservationtracker.dto.ReservationDto.AvailabilityMatrixRequest;
 import com.example.reservationtracker.dto.ReservationDto.AvailabilityRequest;
 import com.example.reservationtracker.dto.ReservationDto.ExtendReservationRequest;
+import com.example.reservationtracker.dto.ReservationDto.OccurrenceResult;
+import com.example.reservationtracker.dto.ReservationDto.RecurringReservationRequest;
+import com.example.reservationtracker.dto.ReservationDto.RecurringReservationResponse;
 import com.example.reservationtracker.dto.ReservationDto.ReservationRequest;
 import com.example.reservationtracker.dto.ReservationDto.ReservationResponse;
+import com.example.reservationtracker.dto.ReservationDto.SpaceAvailability;
 import com.example.reservationtracker.dto.ReservationDto.TimeSlot;
+import com.example.reservationtracker.exception.ResourceNotFoundException;
 import com.example.reservationtracker.model.Reservation;
-import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.repository.ReservationView;
+import com.example.reservationtracker.service.AvailabilityService;
+import com.example.reservationtracker.service.RecurrenceRule;
+import com.example.reservationtracker.service.RecurringOccurrence;
+import com.example.reservationtracker.service.ReservationPage;
 import com.example.reservationtracker.service.ReservationService;
+import com.example.reservationtracker.service.StudySpaceService;
 
-import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,31 +36,33 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*") // For development only
 public class ReservationController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final ReservationService reservationService;
-    private final ReservationRepository reservationRepository;
+    private final StudySpaceService studySpaceService;
+    private final AvailabilityService availabilityService;
     
+    // Listings are keyset paginated: pass the X-Next-Cursor header of a response as ?cursor= to get the next page
     @GetMapping
-    public ResponseEntity<List<ReservationResponse>> getUserReservations() {
-        List<ReservationResponse> reservations = reservationService.getUserReservations().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponse>> getUserReservations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return toResponse(reservationService.getUserReservations(cursor, size));
     }
     
     @GetMapping("/upcoming")
-    public ResponseEntity<List<ReservationResponse>> getUpcomingReservations() {
-        List<ReservationResponse> reservations = reservationService.getUpcomingReservations().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponse>> getUpcomingReservations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return toResponse(reservationService.getUpcomingReservations(cursor, size));
     }
     
     @GetMapping("/space/{spaceId}")
-    public ResponseEntity<List<ReservationResponse>> getSpaceReservations(@PathVariable Long spaceId) {
-        List<ReservationResponse> reservations = reservationService.getSpaceReservations(spaceId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponse>> getSpaceReservations(
+            @PathVariable Long spaceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return toResponse(reservationService.getSpaceReservations(spaceId, cursor, size));
     }
     
     @PostMapping
@@ -65,6 +77,37 @@ public class ReservationController {
         return new ResponseEntity<>(mapToDto(reservation), HttpStatus.CREATED);
     }
     
+    // Books a weekly series; 201 if anything was booked, otherwise 409 with the per-date results
+    @PostMapping("/recurring")
+    public ResponseEntity<RecurringReservationResponse> createRecurringReservation(
+            @Valid @RequestBody RecurringReservationRequest request) {
+        RecurrenceRule rule = new RecurrenceRule(
+                request.getStartDate(),
+                request.getIntervalWeeks(),
+                request.getDaysOfWeek(),
+                request.getOccurrences(),
+                request.getEndDate());
+        List<RecurringOccurrence> occurrences = reservationService.createRecurringReservations(
+                request.getSpaceId(), rule, request.getStartTime(), request.getEndTime(), request.isAtomic());
+        
+        List<OccurrenceResult> results = occurrences.stream()
+                .map(occurrence -> new OccurrenceResult(
+                        occurrence.date(),
+                        occurrence.outcome().name(),
+                        occurrence.reservation() != null ? occurrence.reservation().getId() : null))
+                .collect(Collectors.toList());
+        int booked = (int) occurrences.stream()
+                .filter(occurrence -> occurrence.outcome() == RecurringOccurrence.Outcome.BOOKED)
+                .count();
+        int conflicts = (int) occurrences.stream()
+                .filter(occurrence -> occurrence.outcome() == RecurringOccurrence.Outcome.CONFLICT)
+                .count();
+        
+        return new ResponseEntity<>(
+                new RecurringReservationResponse(request.isAtomic(), booked, conflicts, results),
+                booked > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<ReservationResponse> cancelReservation(@PathVariable Long id) {
         Reservation reservation = reservationService.cancelReservation(id);
@@ -82,52 +125,36 @@ public class ReservationController {
     
     @PostMapping("/availability")
     public ResponseEntity<List<TimeSlot>> checkAvailability(@Valid @RequestBody AvailabilityRequest request) {
-        // Get all reservations for the specified space and date
-        List<Reservation> existingReservations = reservationRepository.findByStudySpaceIdAndDate(
-                request.getSpaceId(), 
-                request.getDate()
-        );
-        
-        // Create time slots (e.g., 30-minute slots from 8:00 to 20:00)
-        List<TimeSlot> timeSlots = generateTimeSlots();
+        StudySpace space = studySpaceService.getSpaceById(request.getSpaceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
         
-        // Mark slots as unavailable if they overlap with existing reservations
-        for (Reservation reservation : existingReservations) {
-            if (reservation.getStatus() == Reservation.ReservationStatus.CONFIRMED) {
-                for (TimeSlot slot : timeSlots) {
-                    if (isOverlapping(slot, reservation)) {
-                        slot.setAvailable(false);
-                    }
-                }
-            }
-        }
-        
-        return ResponseEntity.ok(timeSlots);
+        // Slots follow the space's opening hours and are read from its cached occupancy bitset
+        return ResponseEntity.ok(availabilityService.getTimeSlots(space, request.getDate()));
     }
     
-    private List<TimeSlot> generateTimeSlots() {
-        List<TimeSlot> slots = new ArrayList<>();
-        LocalTime startOfDay = LocalTime.of(8, 0); // 8:00 AM
-        LocalTime endOfDay = LocalTime.of(20, 0);  // 8:00 PM
+    @PostMapping("/availability/matrix")
+    public ResponseEntity<List<SpaceAvailability>> getAvailabilityMatrix(
+            @Valid @RequestBody AvailabilityMatrixRequest request) {
+        List<StudySpace> spaces = request.getSpaceIds() != null && !request.getSpaceIds().isEmpty()
+                ? studySpaceService.getSpacesByIds(request.getSpaceIds())
+                : studySpaceService.getSpacesByFilters(request.getType(), request.getCapacity(), request.getNoiseLevel());
         
-        // Create 30-minute slots
-        LocalTime slotStart = startOfDay;
-        while (slotStart.isBefore(endOfDay)) {
-            LocalTime slotEnd = slotStart.plusMinutes(30);
-            slots.add(new TimeSlot(slotStart, slotEnd, true)); // Initially all slots are available
-            slotStart = slotEnd;
-        }
-        
-        return slots;
+        return ResponseEntity.ok(availabilityService.getAvailabilityMatrix(
+                spaces, request.getStartDate(), request.getEndDate()));
     }
     
-    private boolean isOverlapping(TimeSlot slot, Reservation reservation) {
-        // Check if the time slot overlaps with the reservation
-        return !(slot.getEndTime().compareTo(reservation.getStartTime()) <= 0 || 
-                 slot.getStartTime().compareTo(reservation.getEndTime()) >= 0);
+    private static ResponseEntity<List<ReservationResponse>> toResponse(ReservationPage page) {
+        List<ReservationResponse> reservations = page.items().stream()
+                .map(ReservationController::mapToDto)
+                .collect(Collectors.toList());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(reservations);
     }
     
-    private ReservationResponse mapToDto(Reservation reservation) {
+    static ReservationResponse mapToDto(Reservation reservation) {
         return new ReservationResponse(
                 reservation.getId(),
                 reservation.getUser().getId(),
@@ -140,4 +167,18 @@ public class ReservationController {
                 reservation.getStatus()
         );
     }
+    
+    static ReservationResponse mapToDto(ReservationView view) {
+        return new ReservationResponse(
+                view.getId(),
+                view.getUserId(),
+                view.getUsername(),
+                view.getSpaceId(),
+                view.getSpaceName(),
+                view.getDate(),
+                view.getStartTime(),
+                view.getEndTime(),
+                view.getStatus()
+        );
+    }
 }
\ No newline at end of file
@@ -2,19 +2,32 @@ package com.example.reservationtracker.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.example.reservationtracker.dto.ReservationDto.TimeSlot;
 import com.example.reservationtracker.dto.SpaceDto.SpaceFilterRequest;
 import com.example.reservationtracker.dto.SpaceDto.SpaceResponse;
+import com.example.reservationtracker.exception.ResourceNotFoundException;
 import com.example.reservationtracker.model.StudySpace;
 import com.example.reservationtracker.model.StudySpace.NoiseLevel;
+import com.example.reservationtracker.service.AvailabilityBroadcaster;
+import com.example.reservationtracker.service.AvailabilityService;
+import com.example.reservationtracker.service.ResourceVersions;
 import com.example.reservationtracker.service.StudySpaceService;
 
-
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.HashMap;
@@ -27,17 +40,33 @@ import java.util.Map;
 @Slf4j
 public class StudySpaceController {
     
+    // Clients may keep catalogue and availability responses but must revalidate them (If-None-Match)
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    
+    private static final int MAX_SEARCH_RESULTS = 100;
+    
     private final StudySpaceService studySpaceService;
+    private final AvailabilityService availabilityService;
+    private final ResourceVersions resourceVersions;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
     
+    // Upper bound on space x date combinations a single stream may watch
+    @Value("${app.availability-stream-max-keys:50}")
+    private int maxStreamKeys;
+    
+    // GET endpoints answer 304 Not Modified from the in-memory version before touching the database
     @GetMapping
-    public ResponseEntity<List<SpaceResponse>> getAllSpaces() {
+    public ResponseEntity<List<SpaceResponse>> getAllSpaces(WebRequest webRequest) {
         log.info("GET request received for all spaces");
+        if (notModified(webRequest, resourceVersions.catalogue())) {
+            return null;
+        }
         try {
             List<SpaceResponse> spaces = studySpaceService.getAllSpaces().stream()
-                    .map(this::mapToDto)
+                    .map(StudySpaceController::mapToDto)
                     .collect(Collectors.toList());
             log.info("Returning {} spaces", spaces.size());
-            return ResponseEntity.ok(spaces);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(spaces);
         } catch (Exception e) {
             log.error("Error fetching all spaces", e);
             throw e;
@@ -45,23 +74,71 @@ public class StudySpaceController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<SpaceResponse> getSpaceById(@PathVariable Long id) {
+    public ResponseEntity<SpaceResponse> getSpaceById(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET request received for space with ID: {}", id);
+        if (notModified(webRequest, resourceVersions.space(id))) {
+            return null;
+        }
         return studySpaceService.getSpaceById(id)
-                .map(this::mapToDto)
-                .map(ResponseEntity::ok)
+                .map(StudySpaceController::mapToDto)
+                .map(space -> ResponseEntity.ok().cacheControl(REVALIDATE).body(space))
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    // Public slot view for kiosk displays and pollers
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<List<TimeSlot>> getAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
+        StudySpace space = studySpaceService.getSpaceById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
+        if (notModified(webRequest, availabilityService.getAvailabilityVersion(id, date))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(availabilityService.getTimeSlots(space, date));
+    }
+    
+    // Server-Sent Events: the current slots of every space/date pair, then an update after each change
+    @GetMapping(path = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            Principal principal,
+            @RequestParam("spaceId") List<Long> spaceIds,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> dates) {
+        List<Long> distinctSpaceIds = spaceIds.stream().distinct().collect(Collectors.toList());
+        List<LocalDate> distinctDates = dates.stream().distinct().collect(Collectors.toList());
+        if (distinctSpaceIds.isEmpty() || distinctDates.isEmpty()) {
+            throw new IllegalArgumentException("At least one space and one date are required");
+        }
+        if (distinctSpaceIds.size() * distinctDates.size() > maxStreamKeys) {
+            throw new IllegalArgumentException("A stream can watch at most " + maxStreamKeys + " space/date combinations");
+        }
+        List<StudySpace> spaces = distinctSpaceIds.stream()
+                .map(id -> studySpaceService.getSpaceById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Study space not found: " + id)))
+                .collect(Collectors.toList());
+        log.info("Availability stream opened for spaces {} on {}", distinctSpaceIds, distinctDates);
+        return availabilityBroadcaster.subscribe(principal.getName(), spaces, distinctDates);
+    }
+    
+    // q: ranked full-text search with typo tolerance; location/name: substring match on one field
     @GetMapping("/search")
     public ResponseEntity<List<SpaceResponse>> searchSpaces(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String location,
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
         
-        log.info("Search request received - location: {}, name: {}", location, name);
+        log.info("Search request received - q: {}, location: {}, name: {}", q, location, name);
+        if (notModified(webRequest, resourceVersions.catalogue())) {
+            return null;
+        }
         List<StudySpace> spaces;
         
-        if (location != null && !location.isEmpty()) {
+        if (q != null && !q.isBlank()) {
+            spaces = studySpaceService.searchSpaces(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        } else if (location != null && !location.isEmpty()) {
             spaces = studySpaceService.searchSpacesByLocation(location);
         } else if (name != null && !name.isEmpty()) {
             spaces = studySpaceService.searchSpacesByName(name);
@@ -70,30 +147,34 @@ public class StudySpaceController {
         }
         
         List<SpaceResponse> spaceResponses = spaces.stream()
-                .map(this::mapToDto)
+                .map(StudySpaceController::mapToDto)
                 .collect(Collectors.toList());
         
         log.info("Returning {} spaces for search", spaceResponses.size());
-        return ResponseEntity.ok(spaceResponses);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(spaceResponses);
     }
     
     @GetMapping("/filter")
     public ResponseEntity<List<SpaceResponse>> filterSpaces(
             @RequestParam(required = false) String type,
             @RequestParam(required = false) Integer capacity,
-            @RequestParam(required = false) NoiseLevel noiseLevel) {
+            @RequestParam(required = false) NoiseLevel noiseLevel,
+            WebRequest webRequest) {
         
         log.info("Filter request received - type: {}, capacity: {}, noiseLevel: {}", 
                 type, capacity, noiseLevel);
+        if (notModified(webRequest, resourceVersions.catalogue())) {
+            return null;
+        }
         
         List<StudySpace> spaces = studySpaceService.getSpacesByFilters(type, capacity, noiseLevel);
         
         List<SpaceResponse> spaceResponses = spaces.stream()
-                .map(this::mapToDto)
+                .map(StudySpaceController::mapToDto)
                 .collect(Collectors.toList());
         
         log.info("Returning {} spaces for filter", spaceResponses.size());
-        return ResponseEntity.ok(spaceResponses);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(spaceResponses);
     }
     
     @PostMapping("/filter")
@@ -106,14 +187,20 @@ public class StudySpaceController {
                 filterRequest.getNoiseLevel());
         
         List<SpaceResponse> spaceResponses = spaces.stream()
-                .map(this::mapToDto)
+                .map(StudySpaceController::mapToDto)
                 .collect(Collectors.toList());
         
         log.info("Returning {} spaces for POST filter", spaceResponses.size());
         return ResponseEntity.ok(spaceResponses);
     }
     
-    private SpaceResponse mapToDto(StudySpace studySpace) {
+    // True when the client's copy is current and the response has become a 304; otherwise the
+    // ETag and Last-Modified headers are set and the body must be produced
+    private static boolean notModified(WebRequest webRequest, ResourceVersions.Version version) {
+        return webRequest.checkNotModified(version.etag(), version.lastModified().toEpochMilli());
+    }
+    
+    static SpaceResponse mapToDto(StudySpace studySpace) {
         return new SpaceResponse(
                 studySpace.getId(),
                 studySpace.getName(),
@@ -122,15 +209,22 @@ public class StudySpaceController {
                 studySpace.getCapacity(),
                 studySpace.getEquipment(),
                 studySpace.getNoiseLevel(),
-                studySpace.getImageUrl()
+                studySpace.getImageUrl(),
+                studySpace.getOpeningTime(),
+                studySpace.getClosingTime(),
+                studySpace.getSlotMinutes()
         );
     }
     @GetMapping("/paged")
     public ResponseEntity<Map<String, Object>> getAllSpacesPaged(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "9") int size) {
+            @RequestParam(defaultValue = "9") int size,
+            WebRequest webRequest) {
         
         log.info("GET request received for paged spaces - page: {}, size: {}", page, size);
+        if (notModified(webRequest, resourceVersions.catalogue())) {
+            return null;
+        }
         try {
             // Create Pageable object
             Pageable pageable = PageRequest.of(page, size);
@@ -140,7 +234,7 @@ public class StudySpaceController {
             
             // Get content for current page
             List<SpaceResponse> spaces = pageSpaces.getContent().stream()
-                    .map(this::mapToDto)
+                    .map(StudySpaceController::mapToDto)
                     .collect(Collectors.toList());
             
             Map<String, Object> response = new HashMap<>();
@@ -152,10 +246,42 @@ public class StudySpaceController {
             log.info("Returning paged response with {} spaces, page {}/{}", 
                     spaces.size(), pageSpaces.getNumber(), pageSpaces.getTotalPages());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
         } catch (Exception e) {
             log.error("Error fetching paged spaces", e);
             throw e;
         }
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/available")
+    public ResponseEntity<Map<String, Object>> findAvailableSpaces(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) NoiseLevel noiseLevel,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "9") int size) {
+        
+        log.info("Availability search received - date: {}, {}-{}, type: {}, capacity: {}, noiseLevel: {}", 
+                date, startTime, endTime, type, capacity, noiseLevel);
+        
+        Page<StudySpace> pageSpaces = studySpaceService.findAvailableSpaces(
+                type, capacity, noiseLevel, date, startTime, endTime, PageRequest.of(page, size));
+        
+        List<SpaceResponse> spaces = pageSpaces.getContent().stream()
+                .map(StudySpaceController::mapToDto)
+                .collect(Collectors.toList());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("spaces", spaces);
+        response.put("currentPage", pageSpaces.getNumber());
+        response.put("totalItems", pageSpaces.getTotalElements());
+        response.put("totalPages", pageSpaces.getTotalPages());
+        
+        log.info("Returning {} available spaces, page {}/{}", 
+                spaces.size(), pageSpaces.getNumber(), pageSpaces.getTotalPages());
+        return ResponseEntity.ok(response);
+    }
+}
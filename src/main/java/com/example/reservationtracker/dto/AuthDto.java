@@ -2,11 +2,14 @@ package com.example.reservationtracker.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.example.reservationtracker.model.User;
+
 public class AuthDto {
 
     @Data
@@ -39,6 +42,15 @@ public class AuthDto {
         private String password;
     }
     
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleRequest {
+        
+        @NotNull(message = "Role is required")
+        private User.Role role;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -2,14 +2,19 @@ package com.example.reservationtracker.dto;
 
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
 
 import com.example.reservationtracker.model.Reservation.ReservationStatus;
+import com.example.reservationtracker.model.StudySpace.NoiseLevel;
 
 public class ReservationDto {
     
@@ -46,6 +51,59 @@ public class ReservationDto {
         private LocalTime endTime;
     }
     
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecurringReservationRequest {
+        @NotNull(message = "Study space ID is required")
+        private Long spaceId;
+        
+        @NotNull(message = "Start date is required")
+        @FutureOrPresent(message = "Start date must be today or in the future")
+        private LocalDate startDate;
+        
+        // The series ends at endDate or after the given number of occurrences, whichever comes first
+        private LocalDate endDate;
+        
+        @Positive(message = "Occurrences must be positive")
+        private Integer occurrences;
+        
+        @Positive(message = "Interval must be at least one week")
+        private int intervalWeeks = 1;
+        
+        // Weekdays to book; defaults to the weekday of the start date
+        private Set<DayOfWeek> daysOfWeek;
+        
+        @NotNull(message = "Start time is required")
+        private LocalTime startTime;
+        
+        @NotNull(message = "End time is required")
+        private LocalTime endTime;
+        
+        // All or nothing by default; when false the free dates are booked and conflicts reported
+        private boolean atomic = true;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecurringReservationResponse {
+        private boolean atomic;
+        private int booked;
+        private int conflicts;
+        private List<OccurrenceResult> occurrences;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceResult {
+        private LocalDate date;
+        // BOOKED, CONFLICT or SKIPPED
+        private String status;
+        private Long reservationId;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -73,4 +131,50 @@ public class ReservationDto {
         private LocalTime endTime;
         private boolean available;
     }
-}
\ No newline at end of file
+    
+    // Pushed to availability stream subscribers: the current slots of one space and day
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailabilityUpdate {
+        private Long spaceId;
+        private LocalDate date;
+        private List<TimeSlot> slots;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailabilityMatrixRequest {
+        // Explicit spaces; when empty the filter fields below select the spaces instead
+        private Set<Long> spaceIds;
+        private String type;
+        private Integer capacity;
+        private NoiseLevel noiseLevel;
+        
+        @NotNull(message = "Start date is required")
+        private LocalDate startDate;
+        
+        @NotNull(message = "End date is required")
+        private LocalDate endDate;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpaceAvailability {
+        private Long spaceId;
+        private String spaceName;
+        private LocalTime openingTime;
+        private LocalTime closingTime;
+        private List<DailyAvailability> days;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyAvailability {
+        private LocalDate date;
+        private List<TimeSlot> slots;
+    }
+}
@@ -9,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalTime;
+
 public class SpaceDto {
     
     @Data
@@ -23,6 +25,9 @@ public class SpaceDto {
         private String equipment;
         private NoiseLevel noiseLevel;
         private String imageUrl;
+        private LocalTime openingTime;
+        private LocalTime closingTime;
+        private Integer slotMinutes;
     }
     
     @Data
@@ -48,6 +53,13 @@ public class SpaceDto {
         private NoiseLevel noiseLevel;
         
         private String imageUrl;
+        
+        private LocalTime openingTime;
+        
+        private LocalTime closingTime;
+        
+        @Positive(message = "Slot length must be positive")
+        private Integer slotMinutes;
     }
     
     @Data
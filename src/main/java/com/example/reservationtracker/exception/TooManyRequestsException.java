@@ -0,0 +1,18 @@
+package com.example.reservationtracker.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The caller exceeded a rate limit and may retry after the given number of seconds
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -16,8 +16,11 @@ import java.time.LocalTime;
 @Table(name = "reservations")
 public class Reservation {
     
+    // Ids are reserved 50 at a time from the id_generators table, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reservation_ids")
+    @TableGenerator(name = "reservation_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "reservations", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,8 +16,11 @@ import java.util.List;
 @Table(name = "study_spaces")
 public class StudySpace {
     
+    // Ids are reserved 50 at a time from the id_generators table, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "study_space_ids")
+    @TableGenerator(name = "study_space_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "study_spaces", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -41,6 +45,16 @@ public class StudySpace {
     @Column(name = "image_url")
     private String imageUrl;
     
+    // Opening hours and booking granularity; null falls back to the application defaults
+    @Column(name = "opening_time")
+    private LocalTime openingTime;
+    
+    @Column(name = "closing_time")
+    private LocalTime closingTime;
+    
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
+    
     @OneToMany(mappedBy = "studySpace", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
     
@@ -15,8 +15,11 @@ import java.util.List;
 @Table(name = "users")
 public class User {
     
+    // Ids are reserved 50 at a time from the id_generators table, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids")
+    @TableGenerator(name = "user_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true)
@@ -31,6 +34,10 @@ public class User {
     @Enumerated(EnumType.STRING)
     private Role role = Role.USER;
     
+    // Tokens issued at an older version are rejected (see JwtAuthenticationFilter)
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
     
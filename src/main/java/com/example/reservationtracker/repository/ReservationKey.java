@@ -0,0 +1,23 @@
+package com.example.reservationtracker.repository;
+
+import com.example.reservationtracker.model.Reservation.ReservationStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// The (space, date) a reservation belongs to, with its owner, status and time range, resolved
+// without loading the entity
+public interface ReservationKey {
+
+    Long getSpaceId();
+
+    LocalDate getDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    Long getUserId();
+
+    ReservationStatus getStatus();
+}
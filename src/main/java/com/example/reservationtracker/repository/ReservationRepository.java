@@ -1,48 +1,169 @@
 package com.example.reservationtracker.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.reservationtracker.model.Reservation;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     
-    List<Reservation> findByUserId(Long userId);
+    // Columns for ReservationView; the joins fetch user and space names in the same statement
+    String VIEW_SELECT = "SELECT r.id AS id, u.id AS userId, u.username AS username, " +
+            "s.id AS spaceId, s.name AS spaceName, r.date AS date, " +
+            "r.startTime AS startTime, r.endTime AS endTime, r.status AS status " +
+            "FROM Reservation r JOIN r.user u JOIN r.studySpace s ";
     
-    List<Reservation> findByStudySpaceId(Long spaceId);
+    // Keyset condition: rows strictly after the cursor in (date, startTime, id) order
+    String AFTER_CURSOR = "(r.date, r.startTime, r.id) > (:cursorDate, :cursorTime, :cursorId) ";
+    
+    String VIEW_ORDER = "ORDER BY r.date ASC, r.startTime ASC, r.id ASC";
     
     List<Reservation> findByUserIdAndStatus(Long userId, Reservation.ReservationStatus status);
     
     // Find reservations for a specific date
     List<Reservation> findByStudySpaceIdAndDate(Long spaceId, LocalDate date);
     
-    // Find overlapping reservations
-    @Query("SELECT r FROM Reservation r WHERE r.studySpace.id = :spaceId " +
+    // Database-side conflict check used under the booking lock ([start, end) overlap)
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
+           "WHERE r.studySpace.id = :spaceId " +
            "AND r.date = :date " +
            "AND r.status = 'CONFIRMED' " +
-           "AND ((r.startTime <= :endTime AND r.endTime > :startTime) OR " +
-           "(r.startTime < :endTime AND r.endTime >= :startTime))")
-    List<Reservation> findOverlappingReservations(
+           "AND r.startTime < :endTime AND r.endTime > :startTime")
+    boolean existsOverlappingReservation(
             @Param("spaceId") Long spaceId,
             @Param("date") LocalDate date,
             @Param("startTime") LocalTime startTime,
             @Param("endTime") LocalTime endTime);
     
-    // Find a user's upcoming reservations
-    @Query("SELECT r FROM Reservation r WHERE r.user.id = :userId " +
-           "AND ((r.date > :currentDate) OR " +
-           "(r.date = :currentDate AND r.endTime > :currentTime)) " +
+    // Loaded read-only, with user and space for the response: it is never dirty checked, changes
+    // are written with the conditional updates below
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.studySpace WHERE r.id = :id")
+    Optional<Reservation> findReadOnlyById(@Param("id") Long id);
+    
+    // Cancels in one statement: only a confirmed reservation of the given user matches, so ownership
+    // and status are checked atomically and a concurrent change makes it update no row
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = 'CANCELLED', r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.user.id = :userId AND r.status = 'CONFIRMED'")
+    int cancelIfOwnedAndConfirmed(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now);
+    
+    /**
+     * Extends in one statement: the row must still be a confirmed reservation of the given user that
+     * ends at {@code currentEndTime}, and no other confirmed reservation may lie in the added time.
+     * MySQL rejects a subquery on the table being updated (error 1093) unless it is materialized;
+     * the aggregate derived table is never merged into the UPDATE, so it always is.
+     */
+    @Modifying
+    @Query(value = "UPDATE reservations SET end_time = :newEndTime, updated_at = :now " +
+           "WHERE id = :id AND user_id = :userId AND status = 'CONFIRMED' AND end_time = :currentEndTime " +
+           "AND (SELECT conflicts.n FROM (" +
+           "SELECT COUNT(*) AS n FROM reservations o " +
+           "WHERE o.space_id = :spaceId AND o.date = :date AND o.status = 'CONFIRMED' AND o.id <> :id " +
+           "AND o.start_time < :newEndTime AND o.end_time > :currentEndTime) conflicts) = 0",
+           nativeQuery = true)
+    int extendIfOwnedAndFree(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("spaceId") Long spaceId,
+            @Param("date") LocalDate date,
+            @Param("currentEndTime") LocalTime currentEndTime,
+            @Param("newEndTime") LocalTime newEndTime,
+            @Param("now") LocalDateTime now);
+    
+    @Query("SELECT r.studySpace.id AS spaceId, r.date AS date, r.startTime AS startTime, r.endTime AS endTime, " +
+           "r.user.id AS userId, r.status AS status FROM Reservation r WHERE r.id = :id")
+    Optional<ReservationKey> findKeyById(@Param("id") Long id);
+    
+    // Time ranges of all confirmed reservations for a space on a date (used to rebuild the schedule index)
+    @Query("SELECT r.id AS id, r.startTime AS startTime, r.endTime AS endTime FROM Reservation r " +
+           "WHERE r.studySpace.id = :spaceId " +
+           "AND r.date = :date " +
+           "AND r.status = 'CONFIRMED' " +
+           "ORDER BY r.startTime ASC, r.id ASC")
+    List<ReservationSlot> findConfirmedSlots(
+            @Param("spaceId") Long spaceId,
+            @Param("date") LocalDate date);
+
+    // Confirmed reservations for several spaces over a date range, in one round trip
+    @Query("SELECT r.id AS id, r.studySpace.id AS spaceId, r.date AS date, " +
+           "r.startTime AS startTime, r.endTime AS endTime FROM Reservation r " +
+           "WHERE r.studySpace.id IN :spaceIds " +
+           "AND r.date BETWEEN :startDate AND :endDate " +
+           "AND r.status = 'CONFIRMED' " +
+           "ORDER BY r.studySpace.id ASC, r.date ASC, r.startTime ASC, r.id ASC")
+    List<SpaceReservationSlot> findConfirmedSlotsInRange(
+            @Param("spaceIds") Collection<Long> spaceIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    // Listings read as flat projections, so no entities or lazy associations are loaded per row.
+    // They are keyset paginated: each page starts after the last row of the previous one, so deep
+    // pages cost the same as the first.
+    @Query(VIEW_SELECT +
+           "WHERE u.id = :userId AND " + AFTER_CURSOR + VIEW_ORDER)
+    List<ReservationView> findViewsByUserId(
+            @Param("userId") Long userId,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+    
+    @Query(VIEW_SELECT +
+           "WHERE s.id = :spaceId AND " + AFTER_CURSOR + VIEW_ORDER)
+    List<ReservationView> findViewsBySpaceId(
+            @Param("spaceId") Long spaceId,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+    
+    // Find a user's upcoming reservations. The date lower bound is stated on its own so the
+    // (user_id, status, date, end_time) index can range-scan instead of filtering every row.
+    @Query(VIEW_SELECT +
+           "WHERE u.id = :userId " +
+           "AND r.date >= :currentDate " +
+           "AND (r.date > :currentDate OR r.endTime > :currentTime) " +
            "AND r.status = 'CONFIRMED' " +
-           "ORDER BY r.date ASC, r.startTime ASC")
-    List<Reservation> findUpcomingReservations(
+           "AND " + AFTER_CURSOR + VIEW_ORDER)
+    List<ReservationView> findUpcomingReservations(
             @Param("userId") Long userId,
             @Param("currentDate") LocalDate currentDate,
-            @Param("currentTime") LocalTime currentTime);
-}
\ No newline at end of file
+            @Param("currentTime") LocalTime currentTime,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+    
+    // Full export, read row by row: the fetch size makes the driver stream from a server-side cursor
+    // (MySQL needs useCursorFetch=true) and projections keep the persistence context empty.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT +
+           "WHERE r.date BETWEEN :startDate AND :endDate " +
+           "AND (:spaceId IS NULL OR s.id = :spaceId) " +
+           VIEW_ORDER)
+    Stream<ReservationView> streamViews(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("spaceId") Long spaceId);
+}
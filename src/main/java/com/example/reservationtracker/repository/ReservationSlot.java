@@ -0,0 +1,13 @@
+package com.example.reservationtracker.repository;
+
+import java.time.LocalTime;
+
+// Lightweight projection of a reservation's time range, used to build the in-memory schedule index
+public interface ReservationSlot {
+
+    Long getId();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+}
@@ -0,0 +1,28 @@
+package com.example.reservationtracker.repository;
+
+import com.example.reservationtracker.model.Reservation.ReservationStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Flat read model of a reservation with its user and space names, selected in a single query for listings
+public interface ReservationView {
+
+    Long getId();
+
+    Long getUserId();
+
+    String getUsername();
+
+    Long getSpaceId();
+
+    String getSpaceName();
+
+    LocalDate getDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    ReservationStatus getStatus();
+}
@@ -0,0 +1,11 @@
+package com.example.reservationtracker.repository;
+
+import java.time.LocalDate;
+
+// Reservation time range tagged with its space and date, for queries spanning several schedules
+public interface SpaceReservationSlot extends ReservationSlot {
+
+    Long getSpaceId();
+
+    LocalDate getDate();
+}
@@ -1,6 +1,10 @@
 package com.example.reservationtracker.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -8,11 +12,22 @@ import org.springframework.stereotype.Repository;
 import com.example.reservationtracker.model.StudySpace;
 import com.example.reservationtracker.model.StudySpace.NoiseLevel;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StudySpaceRepository extends JpaRepository<StudySpace, Long> {
     
+    String AVAILABLE_CONDITION =
+            "COALESCE(s.openingTime, :defaultOpeningTime) <= :startTime AND " +
+            "COALESCE(s.closingTime, :defaultClosingTime) >= :endTime AND " +
+            "NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.studySpace = s " +
+            "AND r.date = :date " +
+            "AND r.status = 'CONFIRMED' " +
+            "AND r.startTime < :endTime AND r.endTime > :startTime) ";
+    
     List<StudySpace> findByLocationContainingIgnoreCase(String location);
     
     List<StudySpace> findByNameContainingIgnoreCase(String name);
@@ -31,4 +46,33 @@ public interface StudySpaceRepository extends JpaRepository<StudySpace, Long> {
             @Param("type") String type,
             @Param("capacity") Integer capacity,
             @Param("noiseLevel") NoiseLevel noiseLevel);
+    
+    // Spaces matching the filters with no confirmed reservation overlapping [startTime, endTime) on the date,
+    // open for the whole window. Smallest fitting spaces rank first so large rooms stay free for groups.
+    @Query(value = "SELECT s FROM StudySpace s WHERE " +
+           "(:type IS NULL OR s.type = :type) AND " +
+           "(:capacity IS NULL OR s.capacity >= :capacity) AND " +
+           "(:noiseLevel IS NULL OR s.noiseLevel = :noiseLevel) AND " +
+           AVAILABLE_CONDITION +
+           "ORDER BY s.capacity ASC, s.name ASC, s.id ASC",
+           countQuery = "SELECT COUNT(s) FROM StudySpace s WHERE " +
+           "(:type IS NULL OR s.type = :type) AND " +
+           "(:capacity IS NULL OR s.capacity >= :capacity) AND " +
+           "(:noiseLevel IS NULL OR s.noiseLevel = :noiseLevel) AND " +
+           AVAILABLE_CONDITION)
+    Page<StudySpace> findAvailable(
+            @Param("type") String type,
+            @Param("capacity") Integer capacity,
+            @Param("noiseLevel") NoiseLevel noiseLevel,
+            @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime,
+            @Param("defaultOpeningTime") LocalTime defaultOpeningTime,
+            @Param("defaultClosingTime") LocalTime defaultClosingTime,
+            Pageable pageable);
+    
+    // Row lock on the space serializes bookings for it across backend nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StudySpace s WHERE s.id = :id")
+    Optional<StudySpace> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.example.reservationtracker.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.reservationtracker.model.User;
@@ -17,4 +20,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
+    
+    // Password rehash on login, without loading the user first
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+    
+    // Bumping the token version revokes the tokens issued under the old role
+    @Modifying
+    @Query("UPDATE User u SET u.role = :role, u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int updateRole(@Param("id") Long id, @Param("role") User.Role role);
 }
\ No newline at end of file
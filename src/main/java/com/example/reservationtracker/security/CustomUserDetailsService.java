@@ -1,37 +1,52 @@
 package com.example.reservationtracker.security;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.reservationtracker.model.User;
 import com.example.reservationtracker.repository.UserRepository;
 
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-        );
+        return UserPrincipal.from(user);
     }
     
     public User loadUserEntityByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
-}
\ No newline at end of file
+    
+    // Called after a successful login when the stored hash used a different BCrypt cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), newPassword) == 0) {
+            throw new UsernameNotFoundException("User not found with username: " + user.getUsername());
+        }
+        log.debug("Rehashed password of user {} with the configured BCrypt cost", user.getUsername());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        if (user instanceof UserPrincipal principal) {
+            return new UserPrincipal(principal.getId(), principal.getUsername(), principal.getEmail(), newPassword,
+                    principal.getRole(), principal.getTokenVersion());
+        }
+        return loadUserByUsername(user.getUsername());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.reservationtracker.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,7 +21,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -32,13 +32,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Get JWT token from request
         String token = getTokenFromRequest(request);
 
-        // Validate token
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-            // Get username from token
-            String username = tokenProvider.getUsernameFromToken(token);
+        // Validate and parse the token once
+        Claims claims = StringUtils.hasText(token) ? tokenProvider.parseToken(token) : null;
 
-            // Load user by username
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // The account comes from the principal cache rather than the claims, so a deleted user, a
+        // revoked token version or a role change is seen within the cache TTL
+        UserPrincipal userDetails = claims != null ? principalCache.find(claims.getSubject()) : null;
+        if (userDetails != null && tokenProvider.isIssuedFor(claims, userDetails)) {
 
             // Create authentication object
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -1,88 +1,128 @@
 package com.example.reservationtracker.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import com.example.reservationtracker.model.User;
-
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
-
-    @Value("${app.jwt-expiration-milliseconds}")
-    private long jwtExpirationMs;
+    // Identify the account and token version the token was issued for; the role is informational,
+    // authorities always come from the current account
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final long jwtExpirationMs;
+
+    // The key and parser are immutable and thread-safe, so they are built once
+    private final Key key;
+    private final JwtParser parser;
+
+    // Recently verified tokens, so repeated requests with the same token skip the signature check;
+    // null when app.jwt-cache-size is 0
+    private final Cache<String, Claims> verifiedTokens;
+
+    // Token parsing time, tagged by whether the token came from the cache, was verified or rejected
+    private final Timer cachedParseTimer;
+    private final Timer verifiedParseTimer;
+    private final Timer invalidParseTimer;
+
+    public JwtTokenProvider(
+            @Value("${app.jwt-secret}") String jwtSecret,
+            @Value("${app.jwt-expiration-milliseconds}") long jwtExpirationMs,
+            @Value("${app.jwt-cache-size:10000}") long cacheSize,
+            MeterRegistry meterRegistry) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = cacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .recordStats()
+                .build();
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+        }
+        this.cachedParseTimer = parseTimer(meterRegistry, "cached");
+        this.verifiedParseTimer = parseTimer(meterRegistry, "verified");
+        this.invalidParseTimer = parseTimer(meterRegistry, "invalid");
+    }
 
     public String generateToken(String username) {
         return generateToken(new HashMap<>(), username);
     }
 
+    public String generateToken(UserPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, principal.getId());
+        claims.put(ROLE_CLAIM, principal.getRole().name());
+        claims.put(TOKEN_VERSION_CLAIM, principal.getTokenVersion());
+        return generateToken(claims, principal.getUsername());
+    }
+
     public String generateToken(Map<String, Object> extraClaims, String username) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(key())
+                .signWith(key)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-    public String getUsernameFromToken(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Verifies the token and returns its claims, or null if it is invalid or expired. Each token is
+     * parsed at most once per request; recently verified tokens are served from a small cache.
+     */
+    public Claims parseToken(String token) {
+        long started = System.nanoTime();
+        Claims cached = verifiedTokens != null ? verifiedTokens.getIfPresent(token) : null;
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                cachedParseTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+            verifiedTokens.invalidate(token);
+            log.error("JWT token is expired: {}", cached.getExpiration());
+            invalidParseTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        Claims claims = verify(token);
+        Timer timer = claims != null ? verifiedParseTimer : invalidParseTimer;
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return claims;
     }
 
-    public boolean validateToken(String token) {
+    private Claims verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (verifiedTokens != null) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -94,6 +134,26 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    // Whether the token was issued to this account at its current token version. Tokens issued before
+    // the id and version claims existed count as version 0.
+    public boolean isIssuedFor(Claims claims, UserPrincipal account) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        Long tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Long.class);
+        return (userId == null || userId.equals(account.getId()))
+                && (tokenVersion == null ? 0L : tokenVersion) == account.getTokenVersion();
+    }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.parse")
+                .description("Time spent verifying JWT tokens")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.example.reservationtracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.reservationtracker.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits login attempts per username and per client address before any password hashing is done.
+ * Each attempt takes a username slot up front, so attempts sent in parallel cannot all pass the check
+ * while their passwords are still being verified. A failed attempt keeps its slot until the window
+ * ends; a successful one clears the username's count, and one that could not be verified at all gives
+ * its slot back. Counters start with the first attempt and are dropped when the window ends.
+ * <p>
+ * Only failures count per address, and only once they have happened: a whole campus can share one
+ * NAT address, and its users logging in successfully must not lock each other out, however many of
+ * them do so at the same time.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxUserFailures;
+    private final int maxAddressFailures;
+    private final long windowSeconds;
+    private final Cache<String, AtomicInteger> userFailures;
+    private final Cache<String, AtomicInteger> addressFailures;
+    private final Counter throttled;
+
+    public LoginThrottle(
+            @Value("${app.login-max-failures-per-user:5}") int maxUserFailures,
+            @Value("${app.login-max-failures-per-address:50}") int maxAddressFailures,
+            @Value("${app.login-throttle-window-minutes:15}") long windowMinutes,
+            MeterRegistry meterRegistry) {
+        this.maxUserFailures = maxUserFailures;
+        this.maxAddressFailures = maxAddressFailures;
+        this.windowSeconds = Duration.ofMinutes(windowMinutes).toSeconds();
+        // Counters are only written when created, so each window is fixed from the first attempt
+        this.userFailures = newCounters(windowMinutes);
+        this.addressFailures = newCounters(windowMinutes);
+        this.throttled = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before verifying the password")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes an attempt slot for the username, or throws TooManyRequestsException when the username or
+     * the address is already at its limit. The attempt must be followed by recordSuccess,
+     * recordFailure, or release if the password was never verified.
+     */
+    public void reserveAttempt(String username, String address) {
+        if (address != null) {
+            AtomicInteger failures = addressFailures.getIfPresent(address);
+            if (failures != null && failures.get() >= maxAddressFailures) {
+                reject();
+            }
+        }
+        if (!tryReserve(userFailures, key(username), maxUserFailures)) {
+            reject();
+        }
+    }
+
+    public void recordSuccess(String username) {
+        userFailures.invalidate(key(username));
+    }
+
+    // The username keeps the slot taken for the attempt; the address is charged now
+    public void recordFailure(String address) {
+        if (address != null) {
+            addressFailures.get(address, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    // Gives the slot back for an attempt whose password was never checked (e.g. the pool was full)
+    public void release(String username) {
+        release(userFailures, key(username));
+    }
+
+    private void reject() {
+        throttled.increment();
+        throw new TooManyRequestsException("Too many failed login attempts, please try again later", windowSeconds);
+    }
+
+    private static boolean tryReserve(Cache<String, AtomicInteger> counters, String key, int max) {
+        if (key == null) {
+            return true;
+        }
+        AtomicInteger attempts = counters.get(key, k -> new AtomicInteger());
+        if (attempts.incrementAndGet() <= max) {
+            return true;
+        }
+        attempts.decrementAndGet();
+        return false;
+    }
+
+    private static void release(Cache<String, AtomicInteger> counters, String key) {
+        if (key == null) {
+            return;
+        }
+        AtomicInteger attempts = counters.getIfPresent(key);
+        if (attempts != null) {
+            // Never below zero: the counter may have been cleared and recreated meanwhile
+            attempts.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+
+    private static String key(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static Cache<String, AtomicInteger> newCounters(long windowMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.reservationtracker.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.reservationtracker.exception.ServiceUnavailableException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small, bounded pool for password hashing and verification, so a login storm uses at most
+ * {@code app.password-hashing-threads} cores and booking requests keep the rest.
+ * <p>
+ * Work beyond the queue capacity is rejected immediately, and work that waited in the queue longer
+ * than {@code app.password-hashing-max-wait-ms} is dropped before hashing, because its client has
+ * most likely given up. Both surface as 503.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(
+            @Value("${app.password-hashing-threads:0}") int threads,
+            @Value("${app.password-hashing-queue-capacity:100}") int queueCapacity,
+            @Value("${app.password-hashing-max-wait-ms:3000}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        // By default half the cores, but at least one
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue was full or they waited too long")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "password-hashing", List.of()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Runs the task on the hashing pool. Throws ServiceUnavailableException right away when the
+     * queue is full; the returned future fails with it when the task waited too long.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (System.nanoTime() - queuedAt > maxWaitNanos) {
+                    rejected.increment();
+                    throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly");
+                }
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full ({} waiting)", executor.getQueue().size());
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.reservationtracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by username. The authentication
+ * filter checks every token against the cached account, so role changes, revoked token versions and
+ * deleted users take effect on other nodes within the TTL, and immediately on the node that made
+ * the change.
+ */
+@Component
+public class PrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, UserPrincipal> principals;
+
+    public PrincipalCache(
+            CustomUserDetailsService userDetailsService,
+            @Value("${app.principal-cache-max-size:10000}") long maxSize,
+            @Value("${app.principal-cache-ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    public UserPrincipal get(String username) {
+        return principals.get(username, name -> userDetailsService.loadUserByUsername(name).withoutPassword());
+    }
+
+    // Null if the user does not exist; misses are not cached, so a new user is found straight away
+    public UserPrincipal find(String username) {
+        return principals.get(username, name -> {
+            try {
+                return userDetailsService.loadUserByUsername(name).withoutPassword();
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+        });
+    }
+
+    public void evict(String username) {
+        principals.invalidate(username);
+    }
+
+    // Runs after the change commits, so a concurrent request cannot cache the old row again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.username());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.reservationtracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long password hashing and verification take. With BCrypt this is usually the most
+ * expensive step of a login or registration.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchedTimer;
+    private final Timer mismatchedTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("Time spent hashing passwords")
+                .register(meterRegistry);
+        this.matchedTimer = verifyTimer(meterRegistry, "matched");
+        this.mismatchedTimer = verifyTimer(meterRegistry, "mismatched");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchedTimer : mismatchedTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.password.verify")
+                .description("Time spent verifying passwords")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.reservationtracker.security;
+
+// Published when a user's role, password or token version changes; cached principals are evicted
+// once the change is committed
+public record UserChangedEvent(String username) {
+}
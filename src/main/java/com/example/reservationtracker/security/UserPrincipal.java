@@ -0,0 +1,56 @@
+package com.example.reservationtracker.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.reservationtracker.model.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user as seen by the security layer. Carries the id and role so request handling
+ * can identify the caller without loading the {@link User} entity.
+ */
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final User.Role role;
+    private final long tokenVersion;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(Long id, String username, String email, String password, User.Role role) {
+        this(id, username, email, password, role, 0);
+    }
+
+    public UserPrincipal(Long id, String username, String email, String password, User.Role role, long tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRole(),
+                user.getTokenVersion());
+    }
+
+    // Copy that is safe to keep in memory beyond authentication
+    public UserPrincipal withoutPassword() {
+        return password == null ? this : new UserPrincipal(id, username, email, null, role, tokenVersion);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
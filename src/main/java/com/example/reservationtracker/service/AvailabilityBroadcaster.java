@@ -0,0 +1,276 @@
+package com.example.reservationtracker.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.reservationtracker.dto.ReservationDto.AvailabilityUpdate;
+import com.example.reservationtracker.exception.ServiceUnavailableException;
+import com.example.reservationtracker.exception.TooManyRequestsException;
+import com.example.reservationtracker.model.StudySpace;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes availability updates to Server-Sent Events subscribers of (space, date) keys.
+ * <p>
+ * Idle subscriptions are async requests, so they hold a connection but no thread. Changes are
+ * handed to a small dispatcher pool and never block the committing request. Updates are coalesced
+ * twice: a burst of bookings for one key is computed once, and a subscriber that has not received
+ * the previous update gets only the latest state per key. A slow consumer therefore costs at most
+ * one pending update per subscribed key instead of a growing queue.
+ * <p>
+ * Each user may hold a few streams at once, so no single client can use up the global limit.
+ */
+@Component
+@Slf4j
+public class AvailabilityBroadcaster {
+
+    static final String EVENT_NAME = "availability";
+
+    private final AvailabilityService availabilityService;
+    private final StudySpaceService studySpaceService;
+    private final int maxSubscribers;
+    private final int maxSubscribersPerUser;
+    private final long timeoutMs;
+    private final long heartbeatSeconds;
+
+    private final Map<SlotKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<SlotKey> changedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Map<String, Integer> subscribersPerUser = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    public AvailabilityBroadcaster(
+            AvailabilityService availabilityService,
+            StudySpaceService studySpaceService,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${app.availability-stream-max-subscribers:20000}") int maxSubscribers,
+            @Value("${app.availability-stream-max-subscribers-per-user:10}") int maxSubscribersPerUser,
+            @Value("${app.availability-stream-timeout-minutes:30}") long timeoutMinutes,
+            @Value("${app.availability-stream-dispatcher-threads:4}") int dispatcherThreads,
+            @Value("${app.availability-stream-heartbeat-seconds:30}") long heartbeatSeconds) {
+        this.availabilityService = availabilityService;
+        this.studySpaceService = studySpaceService;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerUser = maxSubscribersPerUser;
+        this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.dispatcher = Threading.VIRTUAL.isActive(environment)
+                ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(dispatcherThreads, daemon("availability-dispatch-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("availability-heartbeat-"));
+        // Comments keep proxies from closing idle streams and reveal clients that went away
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        Gauge.builder("availability.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open availability event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the given user for every combination of the given spaces and dates. The
+     * current slots are sent first, followed by an update whenever a booking changes one of the keys.
+     */
+    public SseEmitter subscribe(String username, Collection<StudySpace> spaces, Collection<LocalDate> dates) {
+        if (subscribersPerUser.merge(username, 1, Integer::sum) > maxSubscribersPerUser) {
+            releaseUser(username);
+            // A client that went away without closing its streams is noticed by the next heartbeat
+            throw new TooManyRequestsException("Too many open availability streams for this user", heartbeatSeconds);
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            releaseUser(username);
+            throw new ServiceUnavailableException("Too many open availability streams, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Set<SlotKey> keys = new LinkedHashSet<>();
+        spaces.forEach(space -> dates.forEach(date -> keys.add(new SlotKey(space.getId(), date))));
+        Subscriber subscriber = new Subscriber(username, emitter, keys);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // Registered before the snapshots are read, so a booking made in between is not missed
+        for (SlotKey key : keys) {
+            subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        try {
+            for (StudySpace space : spaces) {
+                for (LocalDate date : dates) {
+                    subscriber.offer(new SlotKey(space.getId(), date), update(space, date));
+                }
+            }
+        } catch (RuntimeException e) {
+            // The emitter is never returned, so nothing else would release the slot and the keys
+            subscriber.close();
+            throw e;
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        SlotKey key = new SlotKey(event.spaceId(), event.date());
+        // Only the first change of a burst schedules work; later ones are covered by it
+        if (subscribers.containsKey(key) && changedKeys.add(key)) {
+            dispatcher.execute(() -> publish(key));
+        }
+    }
+
+    private void publish(SlotKey key) {
+        changedKeys.remove(key);
+        Set<Subscriber> listeners = subscribers.get(key);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        try {
+            StudySpace space = studySpaceService.getSpaceById(key.spaceId()).orElse(null);
+            if (space == null) {
+                return;
+            }
+            AvailabilityUpdate update = update(space, key.date());
+            listeners.forEach(subscriber -> subscriber.offer(key, update));
+        } catch (RuntimeException e) {
+            log.warn("Could not publish availability of space {} on {}", key.spaceId(), key.date(), e);
+        }
+    }
+
+    private void releaseUser(String username) {
+        subscribersPerUser.computeIfPresent(username, (k, streams) -> streams > 1 ? streams - 1 : null);
+    }
+
+    private AvailabilityUpdate update(StudySpace space, LocalDate date) {
+        return new AvailabilityUpdate(space.getId(), date, availabilityService.getTimeSlots(space, date));
+    }
+
+    private void sendHeartbeats() {
+        Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+        subscribers.values().forEach(all::addAll);
+        all.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(listeners -> listeners.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    // In virtual-thread mode a subscriber stuck on a slow socket write no longer occupies one of the
+    // few pool threads. Looked up reflectively because the default build targets Java 17.
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21", e);
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record SlotKey(Long spaceId, LocalDate date) {
+    }
+
+    /**
+     * One open stream. Sends are serialized per subscriber: at most one dispatcher task drains its
+     * pending updates at a time, and newer updates for a key replace unsent ones.
+     */
+    private final class Subscriber {
+
+        private final String username;
+        private final SseEmitter emitter;
+        private final Set<SlotKey> keys;
+        private final Map<SlotKey, AvailabilityUpdate> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(String username, SseEmitter emitter, Set<SlotKey> keys) {
+            this.username = username;
+            this.emitter = emitter;
+            this.keys = keys;
+        }
+
+        void offer(SlotKey key, AvailabilityUpdate update) {
+            pending.put(key, update);
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    for (SlotKey key : pending.keySet()) {
+                        AvailabilityUpdate update = pending.remove(key);
+                        if (update != null) {
+                            emitter.send(SseEmitter.event().name(EVENT_NAME).data(update));
+                        }
+                    }
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                    draining.set(false);
+                    // Re-check: an offer may have arrived after the loop but before the flag was cleared
+                } while ((!pending.isEmpty() || heartbeatDue) && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already completed
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            releaseUser(username);
+            for (SlotKey key : keys) {
+                subscribers.computeIfPresent(key, (k, listeners) -> {
+                    listeners.remove(this);
+                    return listeners.isEmpty() ? null : listeners;
+                });
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.reservationtracker.service;
+
+import java.time.LocalDate;
+
+// Published after a booking change on the space and date is committed
+public record AvailabilityChangedEvent(Long spaceId, LocalDate date) {
+}
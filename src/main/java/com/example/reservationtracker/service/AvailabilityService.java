@@ -0,0 +1,157 @@
+package com.example.reservationtracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.reservationtracker.dto.ReservationDto.DailyAvailability;
+import com.example.reservationtracker.dto.ReservationDto.SpaceAvailability;
+import com.example.reservationtracker.dto.ReservationDto.TimeSlot;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.SpaceReservationSlot;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AvailabilityService {
+
+    private final ReservationIntervalIndex reservationIndex;
+    private final ReservationRepository reservationRepository;
+    private final ResourceVersions resourceVersions;
+    private final LocalTime defaultOpeningTime;
+    private final LocalTime defaultClosingTime;
+    private final int defaultSlotMinutes;
+    private final int bucketSeconds;
+    private final int maxMatrixDays;
+    private final int maxMatrixCells;
+
+    public AvailabilityService(
+            ReservationIntervalIndex reservationIndex,
+            ReservationRepository reservationRepository,
+            ResourceVersions resourceVersions,
+            @Value("${app.default-opening-time:08:00}") String defaultOpeningTime,
+            @Value("${app.default-closing-time:20:00}") String defaultClosingTime,
+            @Value("${app.default-slot-minutes:30}") int defaultSlotMinutes,
+            @Value("${app.availability-granularity-minutes:5}") int granularityMinutes,
+            @Value("${app.availability-matrix-max-days:31}") int maxMatrixDays,
+            @Value("${app.availability-matrix-max-cells:5000}") int maxMatrixCells) {
+        this.reservationIndex = reservationIndex;
+        this.reservationRepository = reservationRepository;
+        this.resourceVersions = resourceVersions;
+        this.defaultOpeningTime = LocalTime.parse(defaultOpeningTime);
+        this.defaultClosingTime = LocalTime.parse(defaultClosingTime);
+        this.defaultSlotMinutes = defaultSlotMinutes;
+        this.bucketSeconds = granularityMinutes * 60;
+        this.maxMatrixDays = maxMatrixDays;
+        this.maxMatrixCells = maxMatrixCells;
+    }
+
+    public DayAvailability getAvailability(StudySpace space, LocalDate date) {
+        return reservationIndex.getSchedule(space.getId(), date).availability(
+                openingTime(space).toSecondOfDay(),
+                closingTime(space).toSecondOfDay(),
+                bucketSeconds);
+    }
+
+    public List<TimeSlot> getTimeSlots(StudySpace space, LocalDate date) {
+        return getAvailability(space, date).toTimeSlots(slotMinutes(space));
+    }
+
+    // Version of a space's availability on a date; no query when the day is already in the index
+    public ResourceVersions.Version getAvailabilityVersion(Long spaceId, LocalDate date) {
+        return resourceVersions.availability(spaceId, reservationIndex.getSchedule(spaceId, date));
+    }
+
+    /**
+     * Availability of several spaces over a date range, built from a single range query that is
+     * grouped per (space, date) in memory.
+     */
+    @Transactional(readOnly = true)
+    public List<SpaceAvailability> getAvailabilityMatrix(List<StudySpace> spaces, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > maxMatrixDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxMatrixDays + " days");
+        }
+        if (spaces.size() * days > maxMatrixCells) {
+            throw new IllegalArgumentException("Too many spaces for this date range, please narrow the selection");
+        }
+        if (spaces.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, StudySpace> spacesById = new LinkedHashMap<>();
+        spaces.forEach(space -> spacesById.put(space.getId(), space));
+        List<SpaceReservationSlot> slots = reservationRepository.findConfirmedSlotsInRange(
+                spacesById.keySet(), startDate, endDate);
+        
+        // Rows arrive ordered by space and date, so each (space, date) group is a contiguous run
+        Map<Long, Map<LocalDate, List<SpaceReservationSlot>>> grouped = new HashMap<>();
+        int runStart = 0;
+        for (int i = 1; i <= slots.size(); i++) {
+            if (i == slots.size() || !sameDay(slots.get(runStart), slots.get(i))) {
+                SpaceReservationSlot first = slots.get(runStart);
+                grouped.computeIfAbsent(first.getSpaceId(), id -> new HashMap<>())
+                        .put(first.getDate(), slots.subList(runStart, i));
+                runStart = i;
+            }
+        }
+        
+        long now = System.nanoTime();
+        List<SpaceAvailability> matrix = new ArrayList<>(spacesById.size());
+        for (StudySpace space : spacesById.values()) {
+            Map<LocalDate, List<SpaceReservationSlot>> byDate = grouped.getOrDefault(space.getId(), Map.of());
+            List<DailyAvailability> daily = new ArrayList<>((int) days);
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                DayAvailability availability = ReservationIntervalIndex.DaySchedule
+                        .of(byDate.getOrDefault(date, List.of()), now)
+                        .availability(
+                                openingTime(space).toSecondOfDay(),
+                                closingTime(space).toSecondOfDay(),
+                                bucketSeconds);
+                daily.add(new DailyAvailability(date, availability.toTimeSlots(slotMinutes(space))));
+            }
+            matrix.add(new SpaceAvailability(
+                    space.getId(), space.getName(), openingTime(space), closingTime(space), daily));
+        }
+        return matrix;
+    }
+
+    public boolean isWithinOpeningHours(StudySpace space, LocalTime startTime, LocalTime endTime) {
+        return !startTime.isBefore(openingTime(space)) && !endTime.isAfter(closingTime(space));
+    }
+
+    private static boolean sameDay(SpaceReservationSlot a, SpaceReservationSlot b) {
+        return a.getSpaceId().equals(b.getSpaceId()) && a.getDate().equals(b.getDate());
+    }
+
+    public LocalTime getDefaultOpeningTime() {
+        return defaultOpeningTime;
+    }
+
+    public LocalTime getDefaultClosingTime() {
+        return defaultClosingTime;
+    }
+
+    public LocalTime openingTime(StudySpace space) {
+        return space.getOpeningTime() != null ? space.getOpeningTime() : defaultOpeningTime;
+    }
+
+    public LocalTime closingTime(StudySpace space) {
+        return space.getClosingTime() != null ? space.getClosingTime() : defaultClosingTime;
+    }
+
+    public int slotMinutes(StudySpace space) {
+        return space.getSlotMinutes() != null ? space.getSlotMinutes() : defaultSlotMinutes;
+    }
+}
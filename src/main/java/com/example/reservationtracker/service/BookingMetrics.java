@@ -0,0 +1,56 @@
+package com.example.reservationtracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for booking outcomes. Conflicts are requests that lost a time slot to another
+ * reservation; rejections are requests refused for any other business reason.
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String CREATE = "create";
+    public static final String EXTEND = "extend";
+    public static final String CANCEL = "cancel";
+    public static final String RECURRING = "recurring";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer lockWaitTimer;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.lockWaitTimer = Timer.builder("reservations.booking.lock.wait")
+                .description("Time spent waiting for the per space and date booking lock")
+                .register(meterRegistry);
+    }
+
+    public void completed(String operation) {
+        meterRegistry.counter("reservations.booking.completed", "operation", operation).increment();
+    }
+
+    // source is "index" when the in-memory schedule caught an extension's overlap (confirmed by the
+    // database), "database" when only the database had it
+    public void conflict(String operation, String source) {
+        meterRegistry.counter("reservations.booking.conflicts", "operation", operation, "source", source).increment();
+    }
+
+    // The index reported an overlap for an extension that the database no longer has, e.g. a cancel
+    // on another node
+    public void staleIndex(String operation) {
+        meterRegistry.counter("reservations.booking.index.stale", "operation", operation).increment();
+    }
+
+    public void rejected(String operation, String reason) {
+        meterRegistry.counter("reservations.booking.rejections", "operation", operation, "reason", reason).increment();
+    }
+
+    public void lockTimedOut() {
+        meterRegistry.counter("reservations.booking.lock.timeouts").increment();
+    }
+
+    public Timer lockWaitTimer() {
+        return lockWaitTimer;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.reservationtracker.service;
+
+import com.example.reservationtracker.dto.ReservationDto.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Occupancy of one space on one day as a bitset over its opening hours.
+ * <p>
+ * Bit i covers the bucket [open + i * bucket, open + (i + 1) * bucket). A bucket is set when any
+ * confirmed reservation touches it, so range queries are a handful of word masks and never allocate.
+ * Instances are immutable and built once per schedule snapshot.
+ */
+public final class DayAvailability {
+
+    private final int openSecond;
+    private final int closeSecond;
+    private final int bucketSeconds;
+    private final int bucketCount;
+    private final long[] occupied;
+
+    private DayAvailability(int openSecond, int closeSecond, int bucketSeconds) {
+        this.openSecond = openSecond;
+        this.closeSecond = closeSecond;
+        this.bucketSeconds = bucketSeconds;
+        this.bucketCount = Math.max(0, (closeSecond - openSecond + bucketSeconds - 1) / bucketSeconds);
+        this.occupied = new long[(bucketCount + 63) >>> 6];
+    }
+
+    static DayAvailability of(
+            ReservationIntervalIndex.DaySchedule schedule, int openSecond, int closeSecond, int bucketSeconds) {
+        DayAvailability availability = new DayAvailability(openSecond, closeSecond, bucketSeconds);
+        for (int i = 0; i < schedule.size(); i++) {
+            availability.markOccupied(schedule.startAt(i), schedule.endAt(i));
+        }
+        return availability;
+    }
+
+    boolean matches(int openSecond, int closeSecond, int bucketSeconds) {
+        return this.openSecond == openSecond
+                && this.closeSecond == closeSecond
+                && this.bucketSeconds == bucketSeconds;
+    }
+
+    public LocalTime getOpeningTime() {
+        return LocalTime.ofSecondOfDay(openSecond);
+    }
+
+    public LocalTime getClosingTime() {
+        return LocalTime.ofSecondOfDay(closeSecond);
+    }
+
+    public boolean isOpen(LocalTime startTime, LocalTime endTime) {
+        return startTime.toSecondOfDay() >= openSecond && endTime.toSecondOfDay() <= closeSecond;
+    }
+
+    // True when [startTime, endTime) lies within opening hours and touches no occupied bucket
+    public boolean isFree(LocalTime startTime, LocalTime endTime) {
+        return isFree(startTime.toSecondOfDay(), endTime.toSecondOfDay());
+    }
+
+    public boolean isFree(int startSecond, int endSecond) {
+        if (startSecond >= endSecond || startSecond < openSecond || endSecond > closeSecond) {
+            return false;
+        }
+        return isClear(bucketFloor(startSecond), bucketCeil(endSecond));
+    }
+
+    // Fixed-length slots from opening time, as returned by the availability endpoint
+    public List<TimeSlot> toTimeSlots(int slotMinutes) {
+        int slotSeconds = slotMinutes * 60;
+        List<TimeSlot> slots = new ArrayList<>((closeSecond - openSecond) / slotSeconds);
+        for (int start = openSecond; start + slotSeconds <= closeSecond; start += slotSeconds) {
+            slots.add(new TimeSlot(
+                    LocalTime.ofSecondOfDay(start),
+                    LocalTime.ofSecondOfDay(start + slotSeconds),
+                    isFree(start, start + slotSeconds)));
+        }
+        return slots;
+    }
+
+    // Maximal free ranges within opening hours
+    public List<TimeSlot> freeRanges() {
+        List<TimeSlot> ranges = new ArrayList<>();
+        int bucket = nextClear(0);
+        while (bucket < bucketCount) {
+            int end = nextSet(bucket);
+            ranges.add(new TimeSlot(
+                    LocalTime.ofSecondOfDay(openSecond + bucket * bucketSeconds),
+                    LocalTime.ofSecondOfDay(Math.min(closeSecond, openSecond + end * bucketSeconds)),
+                    true));
+            bucket = nextClear(end);
+        }
+        return ranges;
+    }
+
+    public boolean isFullyBooked() {
+        return nextClear(0) >= bucketCount;
+    }
+
+    private void markOccupied(int startSecond, int endSecond) {
+        int from = bucketFloor(Math.max(startSecond, openSecond));
+        int to = bucketCeil(Math.min(endSecond, closeSecond));
+        if (from >= to) {
+            return;
+        }
+        int fromWord = from >>> 6;
+        int toWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (fromWord == toWord) {
+            occupied[fromWord] |= firstMask & lastMask;
+            return;
+        }
+        occupied[fromWord] |= firstMask;
+        for (int word = fromWord + 1; word < toWord; word++) {
+            occupied[word] = -1L;
+        }
+        occupied[toWord] |= lastMask;
+    }
+
+    // True when no bit in [from, to) is set
+    private boolean isClear(int from, int to) {
+        if (from >= to) {
+            return true;
+        }
+        int fromWord = from >>> 6;
+        int toWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (fromWord == toWord) {
+            return (occupied[fromWord] & firstMask & lastMask) == 0;
+        }
+        if ((occupied[fromWord] & firstMask) != 0) {
+            return false;
+        }
+        for (int word = fromWord + 1; word < toWord; word++) {
+            if (occupied[word] != 0) {
+                return false;
+            }
+        }
+        return (occupied[toWord] & lastMask) == 0;
+    }
+
+    private int nextSet(int from) {
+        int word = from >>> 6;
+        if (word >= occupied.length) {
+            return bucketCount;
+        }
+        long bits = occupied[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return Math.min(bucketCount, (word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+            if (++word == occupied.length) {
+                return bucketCount;
+            }
+            bits = occupied[word];
+        }
+    }
+
+    private int nextClear(int from) {
+        int word = from >>> 6;
+        if (word >= occupied.length) {
+            return bucketCount;
+        }
+        long bits = ~occupied[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return Math.min(bucketCount, (word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+            if (++word == occupied.length) {
+                return bucketCount;
+            }
+            bits = ~occupied[word];
+        }
+    }
+
+    private int bucketFloor(int second) {
+        return (second - openSecond) / bucketSeconds;
+    }
+
+    private int bucketCeil(int second) {
+        return (second - openSecond + bucketSeconds - 1) / bucketSeconds;
+    }
+}
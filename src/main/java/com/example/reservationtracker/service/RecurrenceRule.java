@@ -0,0 +1,65 @@
+package com.example.reservationtracker.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Weekly recurrence: the given weekdays of every {@code intervalWeeks}-th week from {@code startDate},
+ * until {@code untilDate} (inclusive) or until {@code occurrences} dates have been produced. Without
+ * weekdays the start date's own weekday is used; all seven weekdays give a daily booking.
+ */
+public record RecurrenceRule(
+        LocalDate startDate,
+        int intervalWeeks,
+        Set<DayOfWeek> daysOfWeek,
+        Integer occurrences,
+        LocalDate untilDate) {
+
+    // Dates of all occurrences in order; fails if the rule is invalid or yields no dates or more than maxOccurrences
+    public List<LocalDate> expand(int maxOccurrences) {
+        if (intervalWeeks < 1) {
+            throw new IllegalArgumentException("Recurrence interval must be at least one week");
+        }
+        if (occurrences == null && untilDate == null) {
+            throw new IllegalArgumentException("Either the number of occurrences or an end date is required");
+        }
+        if (occurrences != null && (occurrences < 1 || occurrences > maxOccurrences)) {
+            throw new IllegalArgumentException("Occurrences must be between 1 and " + maxOccurrences);
+        }
+        if (untilDate != null && untilDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before the start date");
+        }
+
+        // Without an explicit count, stop one past the cap so an over-long range is detected
+        int limit = occurrences != null ? occurrences : maxOccurrences + 1;
+        LocalDate last = untilDate != null ? untilDate : LocalDate.MAX;
+        Set<DayOfWeek> days = daysOfWeek == null || daysOfWeek.isEmpty()
+                ? EnumSet.of(startDate.getDayOfWeek())
+                : EnumSet.copyOf(daysOfWeek);
+
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate week = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        while (!week.isAfter(last) && dates.size() < limit) {
+            for (DayOfWeek day : days) {
+                LocalDate date = week.plusDays(day.getValue() - 1L);
+                if (!date.isBefore(startDate) && !date.isAfter(last) && dates.size() < limit) {
+                    dates.add(date);
+                }
+            }
+            week = week.plusWeeks(intervalWeeks);
+        }
+        if (dates.isEmpty()) {
+            throw new IllegalArgumentException("No selected weekday falls between the start and end dates");
+        }
+        if (dates.size() > maxOccurrences) {
+            throw new IllegalArgumentException(
+                    "A recurring reservation can have at most " + maxOccurrences + " occurrences");
+        }
+        return dates;
+    }
+}
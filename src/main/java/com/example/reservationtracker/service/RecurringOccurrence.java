@@ -0,0 +1,17 @@
+package com.example.reservationtracker.service;
+
+import com.example.reservationtracker.model.Reservation;
+
+import java.time.LocalDate;
+
+// Outcome of one date of a recurring booking; reservation is only set when it was booked
+public record RecurringOccurrence(LocalDate date, Outcome outcome, Reservation reservation) {
+
+    public enum Outcome {
+        BOOKED,
+        // The slot is taken on this date
+        CONFLICT,
+        // Free, but not booked because an atomic request had a conflict on another date
+        SKIPPED
+    }
+}
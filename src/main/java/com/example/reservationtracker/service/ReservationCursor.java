@@ -0,0 +1,43 @@
+package com.example.reservationtracker.service;
+
+import com.example.reservationtracker.repository.ReservationView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a reservation listing ordered by (date, startTime, id). Clients receive it as
+ * an opaque URL-safe token and send it back to fetch the rows after it.
+ */
+public record ReservationCursor(LocalDate date, LocalTime startTime, long id) {
+
+    // Sorts before every reservation; 1000-01-01 is the smallest DATE MySQL supports
+    public static final ReservationCursor FIRST = new ReservationCursor(LocalDate.of(1000, 1, 1), LocalTime.MIN, 0L);
+
+    public static ReservationCursor after(ReservationView view) {
+        return new ReservationCursor(view.getDate(), view.getStartTime(), view.getId());
+    }
+
+    public static ReservationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length == 3) {
+                return new ReservationCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // Malformed Base64 and numbers also surface as IllegalArgumentException
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    public String encode() {
+        String raw = date + "|" + startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
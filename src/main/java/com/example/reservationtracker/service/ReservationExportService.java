@@ -0,0 +1,168 @@
+package com.example.reservationtracker.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.ReservationView;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes reservations as CSV or newline-delimited JSON while reading them from a database cursor,
+ * so memory use does not grow with the size of the export.
+ */
+@Service
+@Slf4j
+public class ReservationExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "id", "userId", "username", "spaceId", "spaceName", "date", "startTime", "endTime", "status"};
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ReservationExportService(ReservationRepository reservationRepository, PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void validate(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
+
+    // Streams the matching reservations to the output; runs in its own read-only transaction because
+    // it is called from the response-writing thread, outside the request's persistence context
+    public long export(Format format, LocalDate startDate, LocalDate endDate, Long spaceId, OutputStream output) {
+        validate(startDate, endDate);
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<ReservationView> rows = reservationRepository.streamViews(startDate, endDate, spaceId)) {
+                return format == Format.CSV
+                        ? writeCsv(rows.iterator(), output)
+                        : writeNdjson(rows.iterator(), output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} reservations as {} for {} to {} (space {})", written, format, startDate, endDate, spaceId);
+        return written;
+    }
+
+    private long writeCsv(Iterator<ReservationView> rows, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            ReservationView row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getUserId()));
+            writer.write(',');
+            writer.write(csvField(row.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getSpaceId()));
+            writer.write(',');
+            writer.write(csvField(row.getSpaceName()));
+            writer.write(',');
+            writer.write(row.getDate().toString());
+            writer.write(',');
+            writer.write(row.getStartTime().toString());
+            writer.write(',');
+            writer.write(row.getEndTime().toString());
+            writer.write(',');
+            writer.write(row.getStatus() != null ? row.getStatus().name() : "");
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<ReservationView> rows, OutputStream output) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8);
+        // One object per line, no enclosing array
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        long count = 0;
+        while (rows.hasNext()) {
+            ReservationView row = rows.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getId());
+            generator.writeNumberField("userId", row.getUserId());
+            generator.writeStringField("username", row.getUsername());
+            generator.writeNumberField("spaceId", row.getSpaceId());
+            generator.writeStringField("spaceName", row.getSpaceName());
+            generator.writeStringField("date", row.getDate().toString());
+            generator.writeStringField("startTime", row.getStartTime().toString());
+            generator.writeStringField("endTime", row.getEndTime().toString());
+            generator.writeStringField("status", row.getStatus() != null ? row.getStatus().name() : null);
+            generator.writeEndObject();
+            count++;
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return count;
+    }
+
+    // RFC 4180 quoting for free-text fields
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.reservationtracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.ReservationSlot;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of CONFIRMED reservations per (space, date).
+ * <p>
+ * Each day is kept as an immutable sorted array of [start, end) intervals, so overlap checks are a
+ * binary search instead of a database round trip. Days are loaded from the database on first use
+ * and updated in place whenever a reservation is created, cancelled or extended. At most
+ * app.reservation-index-max-entries days are kept, evicting the least recently used.
+ */
+@Component
+@Slf4j
+public class ReservationIntervalIndex {
+
+    // Loads repeated because the day changed while it was read, before giving up on caching it
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate primaryRead;
+    private final long ttlNanos;
+    private final Cache<SlotKey, DaySchedule> schedules;
+    // Days being loaded. Other readers of the day wait for the load, and a change to the day made
+    // while it runs marks it stale, so the load is repeated instead of installing an old snapshot.
+    private final Map<SlotKey, PendingLoad> loads = new ConcurrentHashMap<>();
+
+    public ReservationIntervalIndex(
+            ReservationRepository reservationRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reservation-index-max-entries:10000}") int maxEntries,
+            @Value("${app.reservation-index-ttl-seconds:300}") long ttlSeconds) {
+        this.reservationRepository = reservationRepository;
+        // Booking conflict checks rely on the index, so days are loaded in a read-write transaction,
+        // which is never routed to a (possibly lagging) read replica
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        // Evicted on the calling thread: the maintenance work is small and this keeps the bound exact
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public boolean hasOverlap(Long spaceId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return getSchedule(spaceId, date).overlaps(startTime.toSecondOfDay(), endTime.toSecondOfDay());
+    }
+
+    /**
+     * Returns the day's schedule, loading it if it is missing or older than the TTL (which picks up
+     * bookings made by other backend nodes). The query runs outside any map lock; concurrent readers
+     * of the same day wait for the one load instead of starting their own.
+     */
+    public DaySchedule getSchedule(Long spaceId, LocalDate date) {
+        SlotKey key = new SlotKey(spaceId, date);
+        DaySchedule schedule = schedules.getIfPresent(key);
+        if (schedule != null && !isExpired(schedule)) {
+            return schedule;
+        }
+        PendingLoad pending = new PendingLoad();
+        PendingLoad running = loads.putIfAbsent(key, pending);
+        if (running != null) {
+            return running.await();
+        }
+        try {
+            DaySchedule loaded = loadAndInstall(key, pending);
+            pending.result.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            loads.remove(key, pending);
+            pending.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void add(Reservation reservation) {
+        if (reservation.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+            return;
+        }
+        SlotKey slotKey = keyOf(reservation);
+        markChanged(slotKey);
+        schedules.asMap().computeIfPresent(slotKey, (key, schedule) -> schedule.with(
+                reservation.getId(),
+                reservation.getStartTime().toSecondOfDay(),
+                reservation.getEndTime().toSecondOfDay()));
+    }
+
+    public void remove(Reservation reservation) {
+        SlotKey slotKey = keyOf(reservation);
+        markChanged(slotKey);
+        schedules.asMap().computeIfPresent(slotKey, (key, schedule) -> schedule.without(reservation.getId()));
+    }
+
+    public void update(Reservation reservation) {
+        if (reservation.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+            remove(reservation);
+            return;
+        }
+        // Only replaces an interval that is still indexed: a cancel committed in the meantime (cancels do
+        // not take the booking lock) must not be undone by an extension's late update
+        SlotKey slotKey = keyOf(reservation);
+        markChanged(slotKey);
+        schedules.asMap().computeIfPresent(slotKey, (key, schedule) -> schedule.indexOf(reservation.getId()) < 0
+                ? schedule
+                : schedule.without(reservation.getId()).with(
+                        reservation.getId(),
+                        reservation.getStartTime().toSecondOfDay(),
+                        reservation.getEndTime().toSecondOfDay()));
+    }
+
+    public void invalidate(Long spaceId, LocalDate date) {
+        SlotKey key = new SlotKey(spaceId, date);
+        markChanged(key);
+        schedules.invalidate(key);
+    }
+
+    public void clear() {
+        loads.keySet().forEach(this::markChanged);
+        schedules.invalidateAll();
+    }
+
+    // Called before the cached day is changed: a load that has not been installed yet is then
+    // repeated, and one installed already receives the change like any cached day
+    private void markChanged(SlotKey key) {
+        loads.computeIfPresent(key, (k, pending) -> {
+            pending.stale = true;
+            return pending;
+        });
+    }
+
+    private DaySchedule loadAndInstall(SlotKey key, PendingLoad pending) {
+        for (int attempt = 1; ; attempt++) {
+            DaySchedule loaded = load(key.spaceId(), key.date());
+            boolean lastAttempt = attempt == MAX_LOAD_ATTEMPTS;
+            DaySchedule[] installed = new DaySchedule[1];
+            loads.computeIfPresent(key, (k, current) -> {
+                if (current.stale && !lastAttempt) {
+                    current.stale = false;
+                    return current;
+                }
+                if (current.stale) {
+                    // Still changing after every attempt: answer this caller without caching
+                    installed[0] = loaded;
+                } else {
+                    DaySchedule previous = schedules.getIfPresent(k);
+                    installed[0] = previous != null ? loaded.keepVersionIfUnchanged(previous) : loaded;
+                    schedules.put(k, installed[0]);
+                }
+                return null;
+            });
+            if (installed[0] != null) {
+                return installed[0];
+            }
+        }
+    }
+
+    // Number of cached days, after any pending eviction
+    long size() {
+        schedules.cleanUp();
+        return schedules.estimatedSize();
+    }
+
+    private DaySchedule load(Long spaceId, LocalDate date) {
+        List<ReservationSlot> slots = primaryRead.execute(status -> reservationRepository.findConfirmedSlots(spaceId, date));
+        log.debug("Loaded {} confirmed reservations into index for space {} on {}", slots.size(), spaceId, date);
+        return DaySchedule.of(slots, System.nanoTime());
+    }
+
+    private boolean isExpired(DaySchedule schedule) {
+        return System.nanoTime() - schedule.loadedAt > ttlNanos;
+    }
+
+    private static SlotKey keyOf(Reservation reservation) {
+        return new SlotKey(reservation.getStudySpace().getId(), reservation.getDate());
+    }
+
+    private record SlotKey(Long spaceId, LocalDate date) {
+    }
+
+    private static final class PendingLoad {
+
+        private final CompletableFuture<DaySchedule> result = new CompletableFuture<>();
+        // Guarded by the loads map entry (only read and written inside its compute calls)
+        private boolean stale;
+
+        DaySchedule await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Immutable, start-ordered list of reservation intervals for one space and day. Times are stored
+     * as seconds of the day. {@code maxEnds[i]} is the latest end among the first i + 1 intervals,
+     * which keeps the overlap test logarithmic even if stored intervals overlap each other.
+     * <p>
+     * Every snapshot with different contents gets a new version, used for availability ETags.
+     */
+    public static final class DaySchedule {
+
+        private static final AtomicLong VERSIONS = new AtomicLong();
+
+        private final long loadedAt;
+        private final long version;
+        private final long modifiedAt;
+        private final long[] ids;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+        private volatile DayAvailability availability;
+
+        private DaySchedule(long loadedAt, long[] ids, int[] starts, int[] ends) {
+            this(loadedAt, VERSIONS.incrementAndGet(), System.currentTimeMillis(), ids, starts, ends);
+        }
+
+        private DaySchedule(long loadedAt, long version, long modifiedAt, long[] ids, int[] starts, int[] ends) {
+            this.loadedAt = loadedAt;
+            this.version = version;
+            this.modifiedAt = modifiedAt;
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        static DaySchedule of(List<? extends ReservationSlot> slots, long loadedAt) {
+            // The repository returns slots ordered by start time and id, matching the index order
+            long[] ids = new long[slots.size()];
+            int[] starts = new int[slots.size()];
+            int[] ends = new int[slots.size()];
+            for (int i = 0; i < slots.size(); i++) {
+                ReservationSlot slot = slots.get(i);
+                ids[i] = slot.getId();
+                starts[i] = slot.getStartTime().toSecondOfDay();
+                ends[i] = slot.getEndTime().toSecondOfDay();
+            }
+            return new DaySchedule(loadedAt, ids, starts, ends);
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        // Wall-clock time (epoch millis) at which this version was created
+        public long modifiedAt() {
+            return modifiedAt;
+        }
+
+        public int startAt(int index) {
+            return starts[index];
+        }
+
+        public int endAt(int index) {
+            return ends[index];
+        }
+
+        // Occupancy bitset for the given opening hours, computed once per snapshot
+        public DayAvailability availability(int openSecond, int closeSecond, int bucketSeconds) {
+            DayAvailability current = availability;
+            if (current == null || !current.matches(openSecond, closeSecond, bucketSeconds)) {
+                current = DayAvailability.of(this, openSecond, closeSecond, bucketSeconds);
+                availability = current;
+            }
+            return current;
+        }
+
+        // Half-open overlap test: [start, end) against every stored interval
+        public boolean overlaps(int start, int end) {
+            int index = lastStartBefore(end);
+            return index >= 0 && maxEnds[index] > start;
+        }
+
+        DaySchedule with(long id, int start, int end) {
+            if (indexOf(id) >= 0) {
+                return this;
+            }
+            int position = insertionPoint(start, id);
+            long[] newIds = new long[ids.length + 1];
+            int[] newStarts = new int[starts.length + 1];
+            int[] newEnds = new int[ends.length + 1];
+            copyWithGap(ids, newIds, ids.length, position);
+            copyWithGap(starts, newStarts, starts.length, position);
+            copyWithGap(ends, newEnds, ends.length, position);
+            newIds[position] = id;
+            newStarts[position] = start;
+            newEnds[position] = end;
+            return new DaySchedule(loadedAt, newIds, newStarts, newEnds);
+        }
+
+        // A reload after the TTL keeps the previous version when nothing changed, so ETags stay valid
+        DaySchedule keepVersionIfUnchanged(DaySchedule previous) {
+            if (!Arrays.equals(ids, previous.ids) || !Arrays.equals(starts, previous.starts)
+                    || !Arrays.equals(ends, previous.ends)) {
+                return this;
+            }
+            return new DaySchedule(loadedAt, previous.version, previous.modifiedAt, ids, starts, ends);
+        }
+
+        DaySchedule without(long id) {
+            int position = indexOf(id);
+            if (position < 0) {
+                return this;
+            }
+            return new DaySchedule(
+                    loadedAt,
+                    removeAt(ids, position),
+                    removeAt(starts, position),
+                    removeAt(ends, position));
+        }
+
+        // Index of the last interval whose start is strictly before the given time, or -1
+        private int lastStartBefore(int time) {
+            int low = 0;
+            int high = starts.length - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < time) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        private int insertionPoint(int start, long id) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < start || (starts[mid] == start && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static void copyWithGap(Object source, Object target, int length, int position) {
+            System.arraycopy(source, 0, target, 0, position);
+            System.arraycopy(source, position, target, position + 1, length - position);
+        }
+
+        private static long[] removeAt(long[] source, int position) {
+            long[] target = Arrays.copyOf(source, source.length - 1);
+            System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+            return target;
+        }
+
+        private static int[] removeAt(int[] source, int position) {
+            int[] target = Arrays.copyOf(source, source.length - 1);
+            System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+            return target;
+        }
+    }
+}
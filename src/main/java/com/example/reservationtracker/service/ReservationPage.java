@@ -0,0 +1,9 @@
+package com.example.reservationtracker.service;
+
+import com.example.reservationtracker.repository.ReservationView;
+
+import java.util.List;
+
+// One keyset page of a reservation listing; nextCursor is null on the last page
+public record ReservationPage(List<ReservationView> items, String nextCursor) {
+}
@@ -1,18 +1,31 @@
 package com.example.reservationtracker.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.reservationtracker.exception.ResourceNotFoundException;
 import com.example.reservationtracker.model.Reservation;
 import com.example.reservationtracker.model.StudySpace;
 import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.ReservationKey;
 import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.ReservationView;
+import com.example.reservationtracker.repository.SpaceReservationSlot;
 import com.example.reservationtracker.repository.StudySpaceRepository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -21,106 +34,290 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final StudySpaceRepository studySpaceRepository;
     private final UserService userService;
+    private final ReservationIntervalIndex reservationIndex;
+    private final BookingEngine bookingEngine;
+    private final AvailabilityService availabilityService;
+    private final BookingMetrics bookingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public List<Reservation> getUserReservations() {
-        User currentUser = userService.getCurrentUser();
-        return reservationRepository.findByUserId(currentUser.getId());
+    @Value("${app.reservation-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.reservation-page-max-size:200}")
+    private int maxPageSize;
+    
+    @Value("${app.recurring-max-occurrences:60}")
+    private int maxRecurringOccurrences;
+    
+    @Transactional(readOnly = true)
+    public ReservationPage getUserReservations(String cursor, Integer size) {
+        ReservationCursor after = ReservationCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        return toPage(reservationRepository.findViewsByUserId(
+                userService.getCurrentUserId(),
+                after.date(), after.startTime(), after.id(),
+                Limit.of(pageSize + 1)), pageSize);
     }
     
-    public List<Reservation> getSpaceReservations(Long spaceId) {
-        return reservationRepository.findByStudySpaceId(spaceId);
+    @Transactional(readOnly = true)
+    public ReservationPage getSpaceReservations(Long spaceId, String cursor, Integer size) {
+        ReservationCursor after = ReservationCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        return toPage(reservationRepository.findViewsBySpaceId(
+                spaceId,
+                after.date(), after.startTime(), after.id(),
+                Limit.of(pageSize + 1)), pageSize);
     }
     
     public Reservation createReservation(Long spaceId, LocalDate date, LocalTime startTime, LocalTime endTime) {
-        User currentUser = userService.getCurrentUser();
-        
-        // Check if study space exists
-        StudySpace studySpace = studySpaceRepository.findById(spaceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
-        
-        // Check for time slot conflicts
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-                spaceId, date, startTime, endTime);
-        
-        if (!overlappingReservations.isEmpty()) {
-            throw new IllegalStateException("The selected time slot is already booked");
-        }
-        
-        // Create new reservation
-        Reservation reservation = new Reservation();
-        reservation.setUser(currentUser);
-        reservation.setStudySpace(studySpace);
-        reservation.setDate(date);
-        reservation.setStartTime(startTime);
-        reservation.setEndTime(endTime);
-        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        return bookingEngine.execute(spaceId, date, () -> {
+            // Check if study space exists, locking its row so other nodes book it one at a time
+            StudySpace studySpace = studySpaceRepository.findByIdForUpdate(spaceId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
+            
+            if (!availabilityService.isWithinOpeningHours(studySpace, startTime, endTime)) {
+                bookingMetrics.rejected(BookingMetrics.CREATE, "outside_opening_hours");
+                throw new IllegalStateException("The selected time is outside the opening hours of this space");
+            }
+            
+            // Checked in the database under the row lock: the in-memory index can miss bookings made
+            // on other nodes, so it only serves availability reads and is updated after the commit
+            if (reservationRepository.existsOverlappingReservation(spaceId, date, startTime, endTime)) {
+                bookingMetrics.conflict(BookingMetrics.CREATE, "database");
+                throw new IllegalStateException("The selected time slot is already booked");
+            }
+            
+            // Create new reservation
+            Reservation reservation = new Reservation();
+            reservation.setUser(userService.getCurrentUserReference());
+            reservation.setStudySpace(studySpace);
+            reservation.setDate(date);
+            reservation.setStartTime(startTime);
+            reservation.setEndTime(endTime);
+            reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+            
+            Reservation saved = reservationRepository.save(reservation);
+            bookingEngine.afterCommit(() -> {
+                reservationIndex.add(saved);
+                bookingMetrics.completed(BookingMetrics.CREATE);
+                eventPublisher.publishEvent(new AvailabilityChangedEvent(spaceId, date));
+            });
+            return saved;
+        });
+    }
+    
+    /**
+     * Books the same time slot on every date of a recurrence rule in one transaction. All dates are
+     * checked with a single range query; conflicting dates are reported per occurrence. When atomic,
+     * nothing is booked unless every date is free.
+     */
+    public List<RecurringOccurrence> createRecurringReservations(
+            Long spaceId, RecurrenceRule rule, LocalTime startTime, LocalTime endTime, boolean atomic) {
+        List<LocalDate> dates = rule.expand(maxRecurringOccurrences);
         
-        return reservationRepository.save(reservation);
+        return bookingEngine.execute(spaceId, dates, () -> {
+            StudySpace studySpace = studySpaceRepository.findByIdForUpdate(spaceId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
+            
+            if (!availabilityService.isWithinOpeningHours(studySpace, startTime, endTime)) {
+                bookingMetrics.rejected(BookingMetrics.RECURRING, "outside_opening_hours");
+                throw new IllegalStateException("The selected time is outside the opening hours of this space");
+            }
+            
+            // Existing bookings for the whole range, grouped into one schedule per date
+            Map<LocalDate, List<SpaceReservationSlot>> slotsByDate = new HashMap<>();
+            for (SpaceReservationSlot slot : reservationRepository.findConfirmedSlotsInRange(
+                    List.of(spaceId), dates.get(0), dates.get(dates.size() - 1))) {
+                slotsByDate.computeIfAbsent(slot.getDate(), date -> new ArrayList<>()).add(slot);
+            }
+            int start = startTime.toSecondOfDay();
+            int end = endTime.toSecondOfDay();
+            Set<LocalDate> conflicts = new HashSet<>();
+            for (LocalDate date : dates) {
+                List<SpaceReservationSlot> slots = slotsByDate.get(date);
+                if (slots != null && ReservationIntervalIndex.DaySchedule.of(slots, 0).overlaps(start, end)) {
+                    conflicts.add(date);
+                    bookingMetrics.conflict(BookingMetrics.RECURRING, "database");
+                }
+            }
+            boolean bookFreeDates = conflicts.isEmpty() || !atomic;
+            
+            List<Reservation> reservations = new ArrayList<>();
+            if (bookFreeDates) {
+                User user = userService.getCurrentUserReference();
+                for (LocalDate date : dates) {
+                    if (!conflicts.contains(date)) {
+                        Reservation reservation = new Reservation();
+                        reservation.setUser(user);
+                        reservation.setStudySpace(studySpace);
+                        reservation.setDate(date);
+                        reservation.setStartTime(startTime);
+                        reservation.setEndTime(endTime);
+                        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+                        reservations.add(reservation);
+                    }
+                }
+                // Inserted together so they can share JDBC batches (hibernate.jdbc.batch_size)
+                reservations = reservationRepository.saveAll(reservations);
+                List<Reservation> saved = reservations;
+                bookingEngine.afterCommit(() -> saved.forEach(reservation -> {
+                    reservationIndex.add(reservation);
+                    bookingMetrics.completed(BookingMetrics.RECURRING);
+                    eventPublisher.publishEvent(new AvailabilityChangedEvent(spaceId, reservation.getDate()));
+                }));
+            }
+            
+            List<RecurringOccurrence> occurrences = new ArrayList<>(dates.size());
+            int next = 0;
+            for (LocalDate date : dates) {
+                if (conflicts.contains(date)) {
+                    occurrences.add(new RecurringOccurrence(date, RecurringOccurrence.Outcome.CONFLICT, null));
+                } else if (bookFreeDates) {
+                    occurrences.add(new RecurringOccurrence(
+                            date, RecurringOccurrence.Outcome.BOOKED, reservations.get(next++)));
+                } else {
+                    occurrences.add(new RecurringOccurrence(date, RecurringOccurrence.Outcome.SKIPPED, null));
+                }
+            }
+            return occurrences;
+        });
     }
     
+    @Transactional
     public Reservation cancelReservation(Long reservationId) {
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
         
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found"));
+        // Ownership and status are checked by the UPDATE itself, so nothing can change in between
+        int cancelled = reservationRepository.cancelIfOwnedAndConfirmed(reservationId, currentUserId, LocalDateTime.now());
         
-        // Check if the reservation belongs to the current user
-        if (!reservation.getUser().getId().equals(currentUser.getId())) {
-            throw new IllegalStateException("You can only cancel your own reservations");
-        }
-        
-        // Check if the reservation is already cancelled
-        if (reservation.getStatus() == Reservation.ReservationStatus.CANCELLED) {
-            throw new IllegalStateException("Reservation is already cancelled");
+        // Read afterwards for the response, or to tell why nothing was cancelled
+        Reservation reservation = reservationRepository.findReadOnlyById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found"));
+        if (cancelled == 0) {
+            if (!reservation.getUser().getId().equals(currentUserId)) {
+                bookingMetrics.rejected(BookingMetrics.CANCEL, "not_owner");
+                throw new IllegalStateException("You can only cancel your own reservations");
+            }
+            if (reservation.getStatus() == Reservation.ReservationStatus.CANCELLED) {
+                bookingMetrics.rejected(BookingMetrics.CANCEL, "already_cancelled");
+                throw new IllegalStateException("Reservation is already cancelled");
+            }
+            bookingMetrics.rejected(BookingMetrics.CANCEL, "not_confirmed");
+            throw new IllegalStateException("Only confirmed reservations can be cancelled");
         }
         
-        // Cancel the reservation
-        reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
-        return reservationRepository.save(reservation);
+        bookingEngine.afterCommit(() -> {
+            reservationIndex.remove(reservation);
+            bookingMetrics.completed(BookingMetrics.CANCEL);
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(reservation.getStudySpace().getId(), reservation.getDate()));
+        });
+        return reservation;
     }
     
     public Reservation extendReservation(Long reservationId, LocalTime newEndTime) {
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
         
-        Reservation reservation = reservationRepository.findById(reservationId)
+        // Read before taking the lock; the UPDATE below only applies if the reservation is unchanged
+        ReservationKey key = reservationRepository.findKeyById(reservationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found"));
         
         // Check if the reservation belongs to the current user
-        if (!reservation.getUser().getId().equals(currentUser.getId())) {
+        if (!key.getUserId().equals(currentUserId)) {
+            bookingMetrics.rejected(BookingMetrics.EXTEND, "not_owner");
             throw new IllegalStateException("You can only extend your own reservations");
         }
         
         // Check if the reservation is confirmed
-        if (reservation.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+        if (key.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+            bookingMetrics.rejected(BookingMetrics.EXTEND, "not_confirmed");
             throw new IllegalStateException("Only confirmed reservations can be extended");
         }
         
         // Check if the new end time is after the current end time
-        if (newEndTime.isBefore(reservation.getEndTime()) || newEndTime.equals(reservation.getEndTime())) {
+        if (!newEndTime.isAfter(key.getEndTime())) {
+            bookingMetrics.rejected(BookingMetrics.EXTEND, "invalid_end_time");
             throw new IllegalStateException("New end time must be later than the current end time");
         }
         
-        // Check for conflicts with the extended time
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-                reservation.getStudySpace().getId(), 
-                reservation.getDate(), 
-                reservation.getEndTime(),  // Start from current end time
-                newEndTime);
-        
-        if (!overlappingReservations.isEmpty()) {
-            throw new IllegalStateException("Cannot extend reservation due to conflicts with other reservations");
-        }
-        
-        // Update the reservation
-        reservation.setEndTime(newEndTime);
-        return reservationRepository.save(reservation);
+        return bookingEngine.execute(key.getSpaceId(), key.getDate(), () -> {
+            StudySpace studySpace = studySpaceRepository.findByIdForUpdate(key.getSpaceId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
+            
+            if (!availabilityService.isWithinOpeningHours(studySpace, key.getStartTime(), newEndTime)) {
+                bookingMetrics.rejected(BookingMetrics.EXTEND, "outside_opening_hours");
+                throw new IllegalStateException("The new end time is after the closing time of this space");
+            }
+            
+            // A hit in the index is confirmed against the database before rejecting, since a cancel on
+            // another node leaves its interval in the index until the day is reloaded; a miss is
+            // re-checked by the UPDATE itself
+            if (reservationIndex.hasOverlap(key.getSpaceId(), key.getDate(), key.getEndTime(), newEndTime)) {
+                if (reservationRepository.existsOverlappingReservation(
+                        key.getSpaceId(), key.getDate(), key.getEndTime(), newEndTime)) {
+                    bookingMetrics.conflict(BookingMetrics.EXTEND, "index");
+                    throw new IllegalStateException("Cannot extend reservation due to conflicts with other reservations");
+                }
+                reservationIndex.invalidate(key.getSpaceId(), key.getDate());
+                bookingMetrics.staleIndex(BookingMetrics.EXTEND);
+            }
+            
+            // Ownership, status, the unchanged end time and the conflict check are all part of the UPDATE
+            int extended = reservationRepository.extendIfOwnedAndFree(
+                    reservationId, currentUserId, key.getSpaceId(), key.getDate(),
+                    key.getEndTime(), newEndTime, LocalDateTime.now());
+            
+            // Read afterwards for the response, or to tell why nothing was extended
+            Reservation reservation = reservationRepository.findReadOnlyById(reservationId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Reservation not found"));
+            if (extended == 0) {
+                if (reservation.getStatus() != Reservation.ReservationStatus.CONFIRMED
+                        || !reservation.getEndTime().equals(key.getEndTime())) {
+                    bookingMetrics.rejected(BookingMetrics.EXTEND, "concurrent_change");
+                    throw new IllegalStateException("The reservation was changed at the same time, please try again");
+                }
+                // Booked by another node since the index was loaded
+                reservationIndex.invalidate(key.getSpaceId(), key.getDate());
+                bookingMetrics.conflict(BookingMetrics.EXTEND, "database");
+                throw new IllegalStateException("Cannot extend reservation due to conflicts with other reservations");
+            }
+            
+            bookingEngine.afterCommit(() -> {
+                reservationIndex.update(reservation);
+                bookingMetrics.completed(BookingMetrics.EXTEND);
+                eventPublisher.publishEvent(new AvailabilityChangedEvent(key.getSpaceId(), key.getDate()));
+            });
+            return reservation;
+        });
     }
     
-    public List<Reservation> getUpcomingReservations() {
-        User currentUser = userService.getCurrentUser();
-        return reservationRepository.findUpcomingReservations(
-                currentUser.getId(), 
+    @Transactional(readOnly = true)
+    public ReservationPage getUpcomingReservations(String cursor, Integer size) {
+        ReservationCursor after = ReservationCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        return toPage(reservationRepository.findUpcomingReservations(
+                userService.getCurrentUserId(), 
                 LocalDate.now(), 
-                LocalTime.now());
+                LocalTime.now(),
+                after.date(), after.startTime(), after.id(),
+                Limit.of(pageSize + 1)), pageSize);
+    }
+    
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(requested, maxPageSize);
+    }
+    
+    // One extra row is fetched to tell whether another page follows
+    private static ReservationPage toPage(List<ReservationView> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new ReservationPage(rows, null);
+        }
+        List<ReservationView> items = rows.subList(0, pageSize);
+        return new ReservationPage(items, ReservationCursor.after(items.get(pageSize - 1)).encode());
     }
 }
\ No newline at end of file
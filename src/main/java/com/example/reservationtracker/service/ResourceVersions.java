@@ -0,0 +1,79 @@
+package com.example.reservationtracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the study space catalogue and of each space, used as ETag and Last-Modified values
+ * so pollers can be answered with 304 without reading anything.
+ * <p>
+ * Versions live in memory and include a per-process prefix, so a restart or another node never
+ * reuses an ETag. A change made on another node is only seen here once that node's data reaches
+ * this node's caches, so versions are renewed after the catalogue cache TTL even without a change.
+ */
+@Component
+public class ResourceVersions {
+
+    private final String prefix = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+    private final long maxAgeNanos;
+    private final Map<Long, Version> spaces = new ConcurrentHashMap<>();
+    private volatile Version catalogue;
+
+    public ResourceVersions(@Value("${app.resource-version-max-age-seconds:600}") long maxAgeSeconds) {
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+        this.catalogue = next();
+    }
+
+    // Any catalogue listing
+    public Version catalogue() {
+        Version current = catalogue;
+        if (isExpired(current)) {
+            current = next();
+            catalogue = current;
+        }
+        return current;
+    }
+
+    public Version space(Long spaceId) {
+        return spaces.compute(spaceId, (id, current) -> current == null || isExpired(current) ? next() : current);
+    }
+
+    // Availability of a space on one day: the space (opening hours) combined with the day's schedule snapshot
+    public Version availability(Long spaceId, ReservationIntervalIndex.DaySchedule schedule) {
+        Version space = space(spaceId);
+        Instant scheduleModified = Instant.ofEpochMilli(schedule.modifiedAt());
+        return new Version(
+                space.tag() + "-" + schedule.version(),
+                scheduleModified.isAfter(space.lastModified()) ? scheduleModified : space.lastModified(),
+                space.createdAt());
+    }
+
+    // Call once the change is committed and cached copies are evicted, never before
+    public void spaceChanged(Long spaceId) {
+        spaces.put(spaceId, next());
+        catalogue = next();
+    }
+
+    private Version next() {
+        return new Version(prefix + "-" + counter.incrementAndGet(), Instant.now(), System.nanoTime());
+    }
+
+    private boolean isExpired(Version version) {
+        return System.nanoTime() - version.createdAt() > maxAgeNanos;
+    }
+
+    public record Version(String tag, Instant lastModified, long createdAt) {
+
+        // Strong entity tag
+        public String etag() {
+            return "\"" + tag + "\"";
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.reservationtracker.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name, type, location and equipment of every study space.
+ * <p>
+ * Words are indexed by their trigrams (padded like PostgreSQL's pg_trgm), so a query word finds
+ * indexed words that share enough trigrams with it: misspellings and prefixes still match. A space
+ * matches when every query word matches one of its words; the score adds up, per query word, the
+ * similarity of the best match times the weight of the field it was found in.
+ * <p>
+ * The index is loaded from the database on first use and updated in place when spaces are created,
+ * changed or deleted through {@link StudySpaceService}. It is reloaded after
+ * {@code app.space-search-refresh-minutes} to pick up changes made by other backend nodes. The
+ * indexed spaces are shared between requests and must not be modified.
+ */
+@Component
+@Slf4j
+public class SpaceSearchIndex {
+
+    // Minimum Dice similarity of trigram sets for a typo to count as a match
+    static final double MIN_SIMILARITY = 0.5;
+
+    // A query word that is the start of an indexed word is treated as (almost) exact
+    private static final double PREFIX_SIMILARITY = 0.9;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    enum Field {
+        NAME(3.0),
+        TYPE(2.0),
+        LOCATION(2.0),
+        EQUIPMENT(1.0);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final StudySpaceRepository studySpaceRepository;
+    private final long refreshNanos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Term> terms = new HashMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private long loadedAt;
+    private boolean loaded;
+    private long changes;
+
+    public SpaceSearchIndex(
+            StudySpaceRepository studySpaceRepository,
+            @Value("${app.space-search-refresh-minutes:10}") long refreshMinutes) {
+        this.studySpaceRepository = studySpaceRepository;
+        this.refreshNanos = TimeUnit.MINUTES.toNanos(refreshMinutes);
+    }
+
+    /**
+     * Spaces matching every word of the query, best first (ties by name). Returns an empty list for a
+     * query without words.
+     */
+    public List<StudySpace> search(String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(words(query)));
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String word : words) {
+                Map<Long, Double> wordScores = score(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Spaces must match all words: keep the intersection and add up the scores
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((spaceId, score) -> score + wordScores.get(spaceId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            Map<Long, Double> ranked = scores;
+            return ranked.keySet().stream()
+                    .map(documents::get)
+                    .sorted(Comparator.comparingDouble((Document document) -> -ranked.get(document.space().getId()))
+                            .thenComparing(document -> document.space().getName(), String.CASE_INSENSITIVE_ORDER)
+                            .thenComparing(document -> document.space().getId()))
+                    .limit(limit)
+                    .map(Document::space)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(StudySpace space) {
+        lock.writeLock().lock();
+        try {
+            changes++;
+            if (loaded) {
+                removeDocument(space.getId());
+                addDocument(space);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long spaceId) {
+        lock.writeLock().lock();
+        try {
+            changes++;
+            removeDocument(spaceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Best weighted similarity per space for one query word
+    private Map<Long, Double> score(String word) {
+        Set<String> wordTrigrams = trigrams(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : wordTrigrams) {
+            for (String term : termsByTrigram.getOrDefault(trigram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        shared.forEach((text, count) -> {
+            Term term = terms.get(text);
+            double similarity = 2.0 * count / (wordTrigrams.size() + term.trigramCount());
+            if (text.startsWith(word)) {
+                similarity = text.equals(word) ? 1.0 : Math.max(similarity, PREFIX_SIMILARITY);
+            }
+            if (similarity < MIN_SIMILARITY) {
+                return;
+            }
+            double matched = similarity;
+            term.fields().forEach((spaceId, fields) ->
+                    scores.merge(spaceId, matched * maxWeight(fields), Math::max));
+        });
+        return scores;
+    }
+
+    private void ensureLoaded() {
+        while (true) {
+            long changesBefore;
+            lock.readLock().lock();
+            try {
+                if (loaded && System.nanoTime() - loadedAt <= refreshNanos) {
+                    return;
+                }
+                changesBefore = changes;
+            } finally {
+                lock.readLock().unlock();
+            }
+            // Read outside the lock so searches keep using the current index meanwhile
+            long started = System.nanoTime();
+            List<StudySpace> spaces = studySpaceRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                if (loaded && System.nanoTime() - loadedAt <= refreshNanos) {
+                    return;
+                }
+                // A space changed while reading: the result may predate it, so read again
+                if (changes != changesBefore) {
+                    continue;
+                }
+                documents.clear();
+                terms.clear();
+                termsByTrigram.clear();
+                spaces.forEach(this::addDocument);
+                loadedAt = started;
+                loaded = true;
+                log.debug("Indexed {} study spaces ({} distinct words) for search", documents.size(), terms.size());
+                return;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void addDocument(StudySpace space) {
+        Map<String, Integer> fieldsByWord = new HashMap<>();
+        indexField(fieldsByWord, Field.NAME, space.getName());
+        indexField(fieldsByWord, Field.TYPE, space.getType());
+        indexField(fieldsByWord, Field.LOCATION, space.getLocation());
+        indexField(fieldsByWord, Field.EQUIPMENT, space.getEquipment());
+        documents.put(space.getId(), new Document(space, fieldsByWord.keySet()));
+        fieldsByWord.forEach((word, fields) -> terms.computeIfAbsent(word, this::newTerm).fields().put(space.getId(), fields));
+    }
+
+    private void removeDocument(Long spaceId) {
+        Document document = documents.remove(spaceId);
+        if (document == null) {
+            return;
+        }
+        for (String word : document.words()) {
+            Term term = terms.get(word);
+            term.fields().remove(spaceId);
+            if (term.fields().isEmpty()) {
+                terms.remove(word);
+                for (String trigram : trigrams(word)) {
+                    Set<String> words = termsByTrigram.get(trigram);
+                    words.remove(word);
+                    if (words.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private Term newTerm(String word) {
+        Set<String> trigrams = trigrams(word);
+        trigrams.forEach(trigram -> termsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(word));
+        return new Term(trigrams.size(), new HashMap<>());
+    }
+
+    private static void indexField(Map<String, Integer> fieldsByWord, Field field, String value) {
+        for (String word : words(value)) {
+            fieldsByWord.merge(word, 1 << field.ordinal(), (a, b) -> a | b);
+        }
+    }
+
+    private static double maxWeight(int fields) {
+        double weight = 0;
+        for (Field field : Field.values()) {
+            if ((fields & (1 << field.ordinal())) != 0) {
+                weight = Math.max(weight, field.weight);
+            }
+        }
+        return weight;
+    }
+
+    // Lower-cased words without accents, so "Café" and "cafe" are the same word
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Two leading spaces and one trailing space, so short words and word starts get trigrams too
+    static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private record Document(StudySpace space, Set<String> words) {
+    }
+
+    // An indexed word: its trigram count and, per space containing it, a bit mask of the fields
+    private record Term(int trigramCount, Map<Long, Integer> fields) {
+    }
+}
@@ -1,55 +1,187 @@
 package com.example.reservationtracker.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.reservationtracker.config.CacheConfig;
+import com.example.reservationtracker.config.ReadYourWritesTracker;
+import com.example.reservationtracker.exception.ResourceNotFoundException;
 import com.example.reservationtracker.model.StudySpace;
 import com.example.reservationtracker.model.StudySpace.NoiseLevel;
 import com.example.reservationtracker.repository.StudySpaceRepository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Study space catalogue. Lookups are cached because the catalogue rarely changes and is browsed
+ * without logging in; cached spaces are detached entities shared between requests and must not be
+ * modified. Changes go through the create, update and delete methods, which update the search
+ * index, evict the caches and renew the space's ETag version once the change is committed.
+ * <p>
+ * Read methods are read-only transactions: Hibernate skips flushing and dirty checking for them,
+ * and they run on a read replica when one is configured.
+ */
 @Service
 @RequiredArgsConstructor
 public class StudySpaceService {
     
     private final StudySpaceRepository studySpaceRepository;
+    private final AvailabilityService availabilityService;
+    private final CacheManager cacheManager;
+    private final ResourceVersions resourceVersions;
+    private final SpaceSearchIndex spaceSearchIndex;
+    private final ReadYourWritesTracker readYourWrites;
     
+    @Cacheable(cacheNames = CacheConfig.SPACE_LISTS, key = "'all'")
+    @Transactional(readOnly = true)
     public List<StudySpace> getAllSpaces() {
         return studySpaceRepository.findAll();
     }
     
+    @Cacheable(cacheNames = CacheConfig.SPACES, key = "#id")
+    @Transactional(readOnly = true)
     public Optional<StudySpace> getSpaceById(Long id) {
         return studySpaceRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public List<StudySpace> getSpacesByIds(Collection<Long> ids) {
+        return studySpaceRepository.findAllById(ids);
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.SPACE_LISTS, key = "'location:' + #location")
+    @Transactional(readOnly = true)
     public List<StudySpace> searchSpacesByLocation(String location) {
         return studySpaceRepository.findByLocationContainingIgnoreCase(location);
     }
     
+    @Cacheable(cacheNames = CacheConfig.SPACE_LISTS, key = "'name:' + #name")
+    @Transactional(readOnly = true)
     public List<StudySpace> searchSpacesByName(String name) {
         return studySpaceRepository.findByNameContainingIgnoreCase(name);
     }
     
+    // Ranked, typo-tolerant search over name, type, location and equipment (see SpaceSearchIndex)
+    public List<StudySpace> searchSpaces(String query, int limit) {
+        return spaceSearchIndex.search(query, limit);
+    }
+    
+    @Transactional(readOnly = true)
     public List<StudySpace> getSpacesByType(String type) {
         return studySpaceRepository.findByType(type);
     }
     
+    @Transactional(readOnly = true)
     public List<StudySpace> getSpacesByNoiseLevel(NoiseLevel noiseLevel) {
         return studySpaceRepository.findByNoiseLevel(noiseLevel);
     }
     
+    @Transactional(readOnly = true)
     public List<StudySpace> getSpacesByMinCapacity(Integer capacity) {
         return studySpaceRepository.findByCapacityGreaterThanEqual(capacity);
     }
     
+    @Cacheable(cacheNames = CacheConfig.SPACE_LISTS,
+            key = "'filter:' + #type + ':' + #capacity + ':' + #noiseLevel")
+    @Transactional(readOnly = true)
     public List<StudySpace> getSpacesByFilters(String type, Integer capacity, NoiseLevel noiseLevel) {
         return studySpaceRepository.findByFilters(type, capacity, noiseLevel);
     }
+    
+    @Cacheable(cacheNames = CacheConfig.SPACE_LISTS,
+            key = "'page:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Transactional(readOnly = true)
     public Page<StudySpace> getAllSpacesPaged(Pageable pageable) {
         return studySpaceRepository.findAll(pageable);
     }
+    
+    // Each write is one transaction; the search index, caches and ETag version are only updated
+    // after it commits, so a concurrent reader cannot cache the old state after the eviction
+    @Transactional
+    public StudySpace createSpace(StudySpace space) {
+        space.setId(null);
+        StudySpace saved = studySpaceRepository.save(space);
+        afterCommit(() -> {
+            spaceSearchIndex.put(saved);
+            spaceChanged(saved.getId());
+        });
+        return saved;
+    }
+    
+    // Changes are flushed by dirty checking, as a single UPDATE of the loaded row
+    @Transactional
+    public StudySpace updateSpace(Long id, StudySpace changes) {
+        StudySpace space = studySpaceRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
+        space.setName(changes.getName());
+        space.setType(changes.getType());
+        space.setLocation(changes.getLocation());
+        space.setCapacity(changes.getCapacity());
+        space.setEquipment(changes.getEquipment());
+        space.setNoiseLevel(changes.getNoiseLevel());
+        space.setImageUrl(changes.getImageUrl());
+        space.setOpeningTime(changes.getOpeningTime());
+        space.setClosingTime(changes.getClosingTime());
+        space.setSlotMinutes(changes.getSlotMinutes());
+        afterCommit(() -> {
+            spaceSearchIndex.put(space);
+            spaceChanged(id);
+        });
+        return space;
+    }
+    
+    // Also deletes the space's reservations (cascade on StudySpace.reservations)
+    @Transactional
+    public void deleteSpace(Long id) {
+        StudySpace space = studySpaceRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Study space not found"));
+        studySpaceRepository.delete(space);
+        afterCommit(() -> {
+            spaceSearchIndex.remove(id);
+            spaceChanged(id);
+        });
+    }
+    
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // Evict first, then renew the version: a reader that sees the new ETag must also see the new data.
+    // Reads move to the primary beforehand, so the caches are not refilled from a lagging replica.
+    private void spaceChanged(Long id) {
+        readYourWrites.recordSharedWrite();
+        cacheManager.getCache(CacheConfig.SPACES).evict(id);
+        cacheManager.getCache(CacheConfig.SPACE_LISTS).clear();
+        resourceVersions.spaceChanged(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<StudySpace> findAvailableSpaces(
+            String type, Integer capacity, NoiseLevel noiseLevel,
+            LocalDate date, LocalTime startTime, LocalTime endTime, Pageable pageable) {
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        return studySpaceRepository.findAvailable(
+                type, capacity, noiseLevel, date, startTime, endTime,
+                availabilityService.getDefaultOpeningTime(),
+                availabilityService.getDefaultClosingTime(),
+                pageable);
+    }
 }
\ No newline at end of file
@@ -1,19 +1,31 @@
 package com.example.reservationtracker.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.reservationtracker.dto.AuthDto.JwtResponse;
 import com.example.reservationtracker.dto.AuthDto.LoginRequest;
 import com.example.reservationtracker.dto.AuthDto.RegisterRequest;
+import com.example.reservationtracker.exception.ResourceNotFoundException;
 import com.example.reservationtracker.model.User;
 import com.example.reservationtracker.repository.UserRepository;
 import com.example.reservationtracker.security.JwtTokenProvider;
+import com.example.reservationtracker.security.LoginThrottle;
+import com.example.reservationtracker.security.PasswordHashingExecutor;
+import com.example.reservationtracker.security.PrincipalCache;
+import com.example.reservationtracker.security.UserChangedEvent;
+import com.example.reservationtracker.security.UserPrincipal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
@@ -23,8 +35,13 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginThrottle loginThrottle;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public void register(RegisterRequest registerRequest) {
+    // Password hashing (and the save that needs the hash) runs on the bounded hashing pool
+    public CompletableFuture<Void> register(RegisterRequest registerRequest) {
         // Check if username is already taken
         if (userRepository.existsByUsername(registerRequest.getUsername())) {
             throw new RuntimeException("Username is already taken");
@@ -35,42 +52,101 @@ public class UserService {
             throw new RuntimeException("Email is already in use");
         }
 
-        // Create new user
-        User user = new User();
-        user.setUsername(registerRequest.getUsername());
-        user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        user.setRole(User.Role.USER);
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(registerRequest.getPassword()))
+                .thenAccept(passwordHash -> {
+                    User user = new User();
+                    user.setUsername(registerRequest.getUsername());
+                    user.setEmail(registerRequest.getEmail());
+                    user.setPassword(passwordHash);
+                    user.setRole(User.Role.USER);
+
+                    userRepository.save(user);
+                    principalCache.evict(user.getUsername());
+                });
+    }
+
+    /**
+     * Authenticates on the bounded hashing pool. Usernames and addresses with too many recent
+     * failures are rejected with 429 before any password is hashed.
+     */
+    public CompletableFuture<JwtResponse> login(LoginRequest loginRequest, String clientAddress) {
+        String username = loginRequest.getUsername();
+        // Taken before queueing, so parallel attempts count against the limit before they are verified
+        loginThrottle.reserveAttempt(username, clientAddress);
 
-        userRepository.save(user);
+        CompletableFuture<JwtResponse> result;
+        try {
+            result = passwordHashingExecutor.submit(() -> authenticate(loginRequest));
+        } catch (RuntimeException e) {
+            loginThrottle.release(username);
+            throw e;
+        }
+        return result.whenComplete((response, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                loginThrottle.recordSuccess(username);
+            } else if (cause instanceof AuthenticationException) {
+                // The username keeps its slot until the throttle window ends
+                loginThrottle.recordFailure(clientAddress);
+            } else {
+                loginThrottle.release(username);
+            }
+        });
     }
 
-    public JwtResponse login(LoginRequest loginRequest) {
+    private JwtResponse authenticate(LoginRequest loginRequest) {
+        // Runs on a pool thread, so the result is not stored in the SecurityContext; the client
+        // authenticates later requests with the returned token
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(), 
                         loginRequest.getPassword()
                 )
         );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(loginRequest.getUsername());
         
-        User user = userRepository.findByUsername(loginRequest.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The authenticated principal already holds everything the response needs
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        String jwt = tokenProvider.generateToken(principal);
 
         return new JwtResponse(
                 jwt,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole().name()
+                principal.getId(),
+                principal.getUsername(),
+                principal.getEmail(),
+                principal.getRole().name()
         );
     }
     
+    // The user signs in again to get a token for the new role; existing tokens stop working
+    @Transactional
+    public void updateRole(Long userId, User.Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        userRepository.updateRole(userId, role);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+    
+    @Transactional(readOnly = true)
     public User getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
+    
+    public UserPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return principalCache.get(authentication.getName());
+    }
+    
+    public Long getCurrentUserId() {
+        return getCurrentPrincipal().getId();
+    }
+    
+    // Reference to the current user for associations, without loading the entity
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
 }
\ No newline at end of file
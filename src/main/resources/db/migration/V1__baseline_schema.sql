@@ -0,0 +1,43 @@
+-- Baseline schema, matching what Hibernate generated while the application ran with ddl-auto: update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('ADMIN', 'USER'),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE study_spaces (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    location VARCHAR(255) NOT NULL,
+    capacity INTEGER NOT NULL,
+    equipment TEXT,
+    noise_level ENUM('COLLABORATIVE', 'MODERATE', 'QUIET', 'SILENT'),
+    image_url VARCHAR(255),
+    opening_time TIME(6),
+    closing_time TIME(6),
+    slot_minutes INTEGER,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reservations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    space_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    start_time TIME(6) NOT NULL,
+    end_time TIME(6) NOT NULL,
+    status ENUM('CANCELLED', 'COMPLETED', 'CONFIRMED'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservations_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_reservations_space FOREIGN KEY (space_id) REFERENCES study_spaces (id)
+);
@@ -0,0 +1,19 @@
+-- Indexes for the hot reservation queries. InnoDB appends the primary key to every secondary
+-- index, so each of these also ends in id.
+
+-- Overlap checks while booking and the free-space search (ReservationRepository.existsOverlappingReservation,
+-- StudySpaceRepository.findAvailable): equality on space, date and status, then a range on the times,
+-- answered from the index alone
+CREATE INDEX idx_reservations_space_date_status_times
+    ON reservations (space_id, date, status, start_time, end_time);
+
+-- Upcoming reservations of a user (ReservationRepository.findUpcomingReservations)
+CREATE INDEX idx_reservations_user_status_date_end
+    ON reservations (user_id, status, date, end_time);
+
+-- Keyset-paginated history listings, ordered by (date, start_time, id)
+CREATE INDEX idx_reservations_user_date_start
+    ON reservations (user_id, date, start_time);
+
+CREATE INDEX idx_reservations_space_date_start
+    ON reservations (space_id, date, start_time);
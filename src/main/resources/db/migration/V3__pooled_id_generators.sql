@@ -0,0 +1,15 @@
+-- Entity ids come from this table instead of AUTO_INCREMENT. IDENTITY ids are only known after each
+-- row is inserted, which stops Hibernate from batching inserts; with a table generator Hibernate
+-- reserves a block of 50 ids per round trip and assigns them before flushing.
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+-- With the pooled optimizer and the entities' allocationSize of 50, the first id Hibernate hands out
+-- is next_val - 48, so seeding max(id) + 49 continues right after the existing rows.
+-- The AUTO_INCREMENT columns are left as they are; rows inserted by hand must take ids from here.
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 49 FROM users;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'study_spaces', COALESCE(MAX(id), 0) + 49 FROM study_spaces;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'reservations', COALESCE(MAX(id), 0) + 49 FROM reservations;
@@ -0,0 +1,3 @@
+-- Tokens carry the version current when they were issued (JwtTokenProvider.TOKEN_VERSION_CLAIM).
+-- Bumping it, as a role change does, revokes every token issued to the user before the change.
+ALTER TABLE users ADD COLUMN token_version BIGINT NOT NULL DEFAULT 0;
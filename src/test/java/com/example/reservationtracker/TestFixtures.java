@@ -0,0 +1,85 @@
+package com.example.reservationtracker;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+import com.example.reservationtracker.security.UserPrincipal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spaces and users for tests that commit to the shared test database. Names are made unique, and
+ * {@link #cleanUp()} deletes everything created here (reservations go with their space or user), so
+ * test classes do not see each other's rows.
+ */
+public class TestFixtures {
+
+    private final StudySpaceRepository studySpaceRepository;
+    private final UserRepository userRepository;
+    private final List<Long> spaceIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    public TestFixtures(StudySpaceRepository studySpaceRepository, UserRepository userRepository) {
+        this.studySpaceRepository = studySpaceRepository;
+        this.userRepository = userRepository;
+    }
+
+    // A quiet four-person room in the library, open the default hours
+    public StudySpace space(String name) {
+        StudySpace space = new StudySpace();
+        space.setName(name + " " + System.nanoTime());
+        space.setType("room");
+        space.setLocation("Library");
+        space.setCapacity(4);
+        space.setNoiseLevel(StudySpace.NoiseLevel.QUIET);
+        return save(space);
+    }
+
+    // Saves a space built by the test, so it is cleaned up with the others
+    public StudySpace save(StudySpace space) {
+        StudySpace saved = studySpaceRepository.save(space);
+        spaceIds.add(saved.getId());
+        return saved;
+    }
+
+    public User user(String prefix) {
+        return user(prefix, User.Role.USER);
+    }
+
+    public User user(String prefix, User.Role role) {
+        String username = prefix + "-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("not-used");
+        user.setRole(role);
+        return save(user);
+    }
+
+    // Saves a user built by the test, so it is cleaned up with the others
+    public User save(User user) {
+        User saved = userRepository.save(user);
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    // Signs the user in on the current thread, as the JWT filter would
+    public static void authenticate(User user) {
+        UserPrincipal principal = UserPrincipal.from(user).withoutPassword();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    public void cleanUp() {
+        SecurityContextHolder.clearContext();
+        studySpaceRepository.deleteAllById(spaceIds);
+        userRepository.deleteAllById(userIds);
+        spaceIds.clear();
+        userIds.clear();
+    }
+}
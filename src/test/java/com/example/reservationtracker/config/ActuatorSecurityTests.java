@@ -0,0 +1,36 @@
+package com.example.reservationtracker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+// Metrics export is off in tests unless asked for, and the scrape endpoint would not exist
+@AutoConfigureObservability(tracing = false)
+class ActuatorSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusScrapeRequiresAnAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(user("someone").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+}
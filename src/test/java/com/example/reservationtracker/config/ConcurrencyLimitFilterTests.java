@@ -0,0 +1,61 @@
+package com.example.reservationtracker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50, meterRegistry);
+
+    @Test
+    void shedsRequestsBeyondTheLimitAndAdmitsThemOnceAPermitIsFree() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> perform("/api/reservations", () -> {
+            entered.countDown();
+            await(release);
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = perform("/api/reservations", () -> { });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("http.server.requests.in-flight").gauge().value()).isEqualTo(1.0);
+
+        // Only API requests are limited
+        assertThat(perform("/actuator/health", () -> { }).getStatus()).isEqualTo(200);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(perform("/api/reservations", () -> { }).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.server.requests.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    private MockHttpServletResponse perform(String path, Runnable handler) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, (req, res) -> handler.run());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
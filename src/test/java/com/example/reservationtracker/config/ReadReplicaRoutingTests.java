@@ -0,0 +1,103 @@
+package com.example.reservationtracker.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.repository.ReservationView;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+import com.example.reservationtracker.service.ReservationPage;
+import com.example.reservationtracker.service.ReservationService;
+import com.example.reservationtracker.service.StudySpaceService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two in-memory H2 databases stand in for the primary and an (unreplicated) replica
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "app.datasource.replicas[0].username=sa",
+        "app.datasource.replicas[0].password="
+})
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private StudySpaceService studySpaceService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TestFixtures fixtures;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+        replica.update("DELETE FROM study_spaces");
+    }
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        replica.update("INSERT INTO study_spaces (name, type, location, capacity) VALUES ('Replica Only Room', 'room', 'Annex', 2)");
+
+        assertThat(studySpaceService.searchSpacesByName("Replica Only"))
+                .extracting(StudySpace::getName)
+                .containsExactly("Replica Only Room");
+        List<StudySpace> onPrimary = new TransactionTemplate(transactionManager)
+                .execute(status -> studySpaceRepository.findByNameContainingIgnoreCase("Replica Only"));
+        assertThat(onPrimary).isEmpty();
+    }
+
+    @Test
+    void bookingsRunOnThePrimaryAndTheirAuthorReadsThemBack() {
+        Long spaceId = fixtures.space("Routing Room").getId();
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        TestFixtures.authenticate(fixtures.user("booker"));
+        Reservation booked = reservationService.createReservation(spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        ReservationPage own = reservationService.getUserReservations(null, null);
+        assertThat(own.items()).extracting(ReservationView::getId).containsExactly(booked.getId());
+
+        // Anyone else reads the replica, which never received the booking
+        TestFixtures.authenticate(fixtures.user("browser"));
+        assertThat(reservationService.getSpaceReservations(spaceId, null, null).items()).isEmpty();
+    }
+}
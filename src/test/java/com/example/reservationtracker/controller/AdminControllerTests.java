@@ -0,0 +1,132 @@
+package com.example.reservationtracker.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminControllerTests {
+
+    private static final LocalDate DAY = LocalDate.of(2031, 3, 14);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private TestFixtures fixtures;
+    private Long spaceId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        User user = fixtures.user("export");
+
+        // Quotes and a comma in the name, so the CSV escaping is exercised
+        StudySpace space = new StudySpace();
+        space.setName("Room \"A\", East");
+        space.setType("room");
+        space.setLocation("Library");
+        space.setCapacity(4);
+        spaceId = fixtures.save(space).getId();
+
+        for (int i = 0; i < 3; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setStudySpace(space);
+            reservation.setDate(DAY.plusDays(i));
+            reservation.setStartTime(LocalTime.of(9, 0));
+            reservation.setEndTime(LocalTime.of(10, 0));
+            reservationRepository.save(reservation);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void streamsCsvForDateRangeAndSpace() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/reservations/export")
+                        .param("startDate", DAY.toString())
+                        .param("endDate", DAY.plusDays(1).toString())
+                        .param("spaceId", spaceId.toString())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"reservations-2031-03-14-2031-03-15.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,userId,username,spaceId,spaceName,date,startTime,endTime,status");
+        assertThat(lines[1]).contains(",\"Room \"\"A\"\", East\",2031-03-14,09:00,10:00,CONFIRMED");
+        assertThat(lines[2]).contains(",2031-03-15,");
+    }
+
+    @Test
+    void streamsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/reservations/export")
+                        .param("startDate", DAY.toString())
+                        .param("endDate", DAY.plusDays(5).toString())
+                        .param("spaceId", spaceId.toString())
+                        .param("format", "ndjson")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"id\":").contains("\"date\":\"2031-03-14\"", "\"status\":\"CONFIRMED\"");
+    }
+
+    @Test
+    void rejectsNonAdmins() throws Exception {
+        mockMvc.perform(get("/api/admin/reservations/export")
+                        .param("startDate", DAY.toString())
+                        .param("endDate", DAY.toString())
+                        .with(user("someone").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+}
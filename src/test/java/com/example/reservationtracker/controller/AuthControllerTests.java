@@ -0,0 +1,175 @@
+package com.example.reservationtracker.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.dto.AuthDto.LoginRequest;
+import com.example.reservationtracker.exception.TooManyRequestsException;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+import com.example.reservationtracker.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void registersAndLogsInOnTheHashingPool() throws Exception {
+        String username = "signup-" + System.nanoTime();
+        postAsync("/api/auth/register",
+                "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"secret1\"}")
+                .andExpect(status().isCreated());
+        // Registered through the API, so it is handed to the fixtures for the cleanup
+        fixtures.save(userRepository.findByUsername(username).orElseThrow());
+
+        login(username, "secret1")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(username))
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    void rehashesPasswordsStoredWithAnotherCost() throws Exception {
+        String username = saveUser("legacy", new BCryptPasswordEncoder(4).encode("secret1"));
+
+        login(username, "secret1").andExpect(status().isOk());
+
+        String rehashed = userRepository.findByUsername(username).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$10$");
+        login(username, "secret1").andExpect(status().isOk());
+    }
+
+    @Test
+    void throttlesRepeatedFailuresWithoutHashing() throws Exception {
+        String username = saveUser("target", new BCryptPasswordEncoder(4).encode("secret1"));
+
+        for (int i = 0; i < 5; i++) {
+            login(username, "wrong").andExpect(status().isUnauthorized());
+        }
+        long verifications = passwordVerifications();
+
+        // Even the right password is turned away until the window ends, and no hash is computed
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret1\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertThat(passwordVerifications()).isEqualTo(verifications);
+    }
+
+    @Test
+    void parallelFailuresCannotOutrunTheThrottle() throws Exception {
+        String username = saveUser("burst", new BCryptPasswordEncoder(4).encode("secret1"));
+        long verifications = passwordVerifications();
+
+        // All attempts are queued before the first password check finishes
+        int attempts = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        List<Future<Boolean>> throttled = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                throttled.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userService.login(new LoginRequest(username, "wrong"), "192.0.2.10")
+                                .handle((response, error) -> null)
+                                .join();
+                        return false;
+                    } catch (TooManyRequestsException e) {
+                        return true;
+                    }
+                }));
+            }
+            start.countDown();
+            int rejected = 0;
+            for (Future<Boolean> result : throttled) {
+                rejected += result.get(1, TimeUnit.MINUTES) ? 1 : 0;
+            }
+            assertThat(rejected).isEqualTo(attempts - 5);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(passwordVerifications() - verifications).isLessThanOrEqualTo(5);
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return postAsync("/api/auth/login", "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+    }
+
+    // The auth endpoints complete asynchronously: wait for the result, then dispatch it
+    private ResultActions postAsync(String path, String json) throws Exception {
+        MvcResult started = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private String saveUser(String prefix, String passwordHash) {
+        User user = fixtures.user(prefix);
+        user.setPassword(passwordHash);
+        return userRepository.save(user).getUsername();
+    }
+
+    private long passwordVerifications() {
+        return meterRegistry.find("auth.password.verify").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.reservationtracker.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+import com.example.reservationtracker.service.AvailabilityService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AvailabilityMatrixTests {
+
+    private static final LocalDate DAY = LocalDate.of(2031, 9, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private TestFixtures fixtures;
+    // Unique per test, so spaces of other test classes never match the filter
+    private String type;
+    private User user;
+    private StudySpace small;
+    private StudySpace large;
+    private StudySpace other;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        type = "matrix-" + System.nanoTime();
+        user = fixtures.user("matrix");
+
+        small = space(type, 2);
+        large = space(type, 8);
+        other = space("other-" + type, 2);
+
+        // Several bookings on one day, and bookings on neighbouring days and spaces, so the rows
+        // grouped per (space, date) are runs of different lengths
+        reservation(small, DAY, "09:00", "10:00");
+        reservation(small, DAY, "13:00", "13:30");
+        reservation(small, DAY.plusDays(1), "08:00", "08:30");
+        reservation(large, DAY, "19:30", "20:00");
+        reservation(other, DAY, "08:00", "20:00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void groupsBookingsPerSpaceAndDay() throws Exception {
+        String smallSpace = "$[?(@.spaceId == " + small.getId() + ")]";
+        String largeSpace = "$[?(@.spaceId == " + large.getId() + ")]";
+        matrix("{\"type\":\"" + type + "\",\"startDate\":\"" + DAY + "\",\"endDate\":\"" + DAY.plusDays(2) + "\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].spaceId").value(containsInAnyOrder(
+                        small.getId().intValue(), large.getId().intValue())))
+                .andExpect(jsonPath(smallSpace + ".days[*].date").value(contains(
+                        DAY.toString(), DAY.plusDays(1).toString(), DAY.plusDays(2).toString())))
+                // Default hours 08:00-20:00 in 30 minute slots
+                .andExpect(jsonPath(smallSpace + ".days[0].slots[*]", hasSize(24)))
+                .andExpect(jsonPath(smallSpace + ".days[0].slots[?(@.available == false)].startTime")
+                        .value(contains("09:00:00", "09:30:00", "13:00:00")))
+                .andExpect(jsonPath(smallSpace + ".days[1].slots[?(@.available == false)].startTime")
+                        .value(contains("08:00:00")))
+                .andExpect(jsonPath(smallSpace + ".days[2].slots[*].available").value(everyItem(is(true))))
+                .andExpect(jsonPath(largeSpace + ".days[0].slots[?(@.available == false)].startTime")
+                        .value(contains("19:30:00")))
+                .andExpect(jsonPath(largeSpace + ".days[1].slots[*].available").value(everyItem(is(true))));
+    }
+
+    @Test
+    void explicitSpaceIdsTakePrecedenceOverFilters() throws Exception {
+        matrix("{\"spaceIds\":[" + other.getId() + "],\"type\":\"" + type + "\","
+                + "\"startDate\":\"" + DAY + "\",\"endDate\":\"" + DAY + "\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].spaceId").value(other.getId().intValue()))
+                .andExpect(jsonPath("$[0].days[0].slots[*].available").value(everyItem(is(false))));
+    }
+
+    @Test
+    void rejectsRangesLongerThanTheDayLimit() throws Exception {
+        matrix("{\"spaceIds\":[" + small.getId() + "],\"startDate\":\"" + DAY + "\",\"endDate\":\"" + DAY.plusDays(30) + "\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].days", hasSize(31)));
+
+        matrix("{\"spaceIds\":[" + small.getId() + "],\"startDate\":\"" + DAY + "\",\"endDate\":\"" + DAY.plusDays(31) + "\"}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Date range must not exceed 31 days"));
+    }
+
+    @Test
+    void rejectsMoreCellsThanTheCellLimit() {
+        // 162 spaces x 31 days = 5022 cells; checked before any query runs
+        List<StudySpace> spaces = new ArrayList<>(Collections.nCopies(162, small));
+        assertThatThrownBy(() -> availabilityService.getAvailabilityMatrix(spaces, DAY, DAY.plusDays(30)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Too many spaces for this date range, please narrow the selection");
+
+        // 161 x 31 = 4991 cells is allowed
+        availabilityService.getAvailabilityMatrix(spaces.subList(0, 161), DAY, DAY.plusDays(30));
+    }
+
+    private ResultActions matrix(String body) throws Exception {
+        return mockMvc.perform(post("/api/reservations/availability/matrix")
+                .with(user(user.getUsername()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private StudySpace space(String spaceType, int capacity) {
+        StudySpace space = new StudySpace();
+        space.setName(spaceType + "-" + capacity);
+        space.setType(spaceType);
+        space.setLocation("Library");
+        space.setCapacity(capacity);
+        return fixtures.save(space);
+    }
+
+    private void reservation(StudySpace space, LocalDate date, String start, String end) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setStudySpace(space);
+        reservation.setDate(date);
+        reservation.setStartTime(LocalTime.parse(start));
+        reservation.setEndTime(LocalTime.parse(end));
+        reservationRepository.save(reservation);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.reservationtracker.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+import com.example.reservationtracker.service.ReservationService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AvailabilityStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    private TestFixtures fixtures;
+    private Long spaceId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        spaceId = fixtures.space("Streamed Room").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void subscriberReceivesSnapshotAndThenBookings() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(21);
+        MockHttpServletResponse response = mockMvc.perform(get("/api/spaces/availability/stream")
+                        .param("spaceId", spaceId.toString())
+                        .param("date", date.toString())
+                        .with(user("watcher")))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> events(response) == 1);
+        assertThat(response.getContentAsString()).contains("\"spaceId\":" + spaceId);
+
+        book(date);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> events(response) == 2);
+        String lastEvent = response.getContentAsString().substring(response.getContentAsString().lastIndexOf("event:"));
+        assertThat(lastEvent).contains("\"startTime\":\"10:00:00\"", "\"available\":false");
+    }
+
+    @Test
+    void streamRejectsTooManyKeysAndUnknownSpaces() throws Exception {
+        mockMvc.perform(get("/api/spaces/availability/stream")
+                        .param("spaceId", spaceId.toString())
+                        .param("date", dates(51))
+                        .with(user("watcher")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/spaces/availability/stream")
+                        .param("spaceId", "-1")
+                        .param("date", LocalDate.now().toString())
+                        .with(user("watcher")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamRequiresASignedInUser() throws Exception {
+        mockMvc.perform(get("/api/spaces/availability/stream")
+                        .param("spaceId", spaceId.toString())
+                        .param("date", LocalDate.now().toString()))
+                .andExpect(status().isForbidden());
+        // The rest of the space pages stay public
+        mockMvc.perform(get("/api/spaces/{id}", spaceId)).andExpect(status().isOk());
+    }
+
+    private static long events(MockHttpServletResponse response) throws Exception {
+        return response.getContentAsString().lines().filter(line -> line.equals("event:availability")).count();
+    }
+
+    private static String[] dates(int count) {
+        LocalDate start = LocalDate.now();
+        return start.datesUntil(start.plusDays(count)).map(LocalDate::toString).toArray(String[]::new);
+    }
+
+    private void book(LocalDate date) {
+        TestFixtures.authenticate(fixtures.user("subscriber"));
+        try {
+            reservationService.createReservation(spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.reservationtracker.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.config.CacheConfig;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudySpaceCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TestFixtures fixtures;
+    private Long spaceId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        spaceId = fixtures.space("Cached Room").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromCacheUntilTheSpaceChanges() throws Exception {
+        double hitsBefore = gets("hit");
+        double missesBefore = gets("miss");
+
+        mockMvc.perform(get("/api/spaces/{id}", spaceId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/spaces/{id}", spaceId)).andExpect(status().isOk());
+        assertThat(gets("miss")).isEqualTo(missesBefore + 1);
+        assertThat(gets("hit")).isEqualTo(hitsBefore + 1);
+
+        mockMvc.perform(put("/api/admin/spaces/{id}", spaceId)
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed Room\",\"type\":\"room\",\"location\":\"Library\","
+                                + "\"capacity\":6,\"noiseLevel\":\"SILENT\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/spaces/{id}", spaceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed Room"))
+                .andExpect(jsonPath("$.capacity").value(6));
+    }
+
+    @Test
+    void deletedSpaceDisappearsFromCachedListings() throws Exception {
+        mockMvc.perform(get("/api/spaces/{id}", spaceId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/spaces/search").param("name", "Cached Room"))
+                .andExpect(jsonPath("$[?(@.id == " + spaceId + ")]").exists());
+
+        mockMvc.perform(delete("/api/admin/spaces/{id}", spaceId).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/spaces/{id}", spaceId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/spaces/search").param("name", "Cached Room"))
+                .andExpect(jsonPath("$[?(@.id == " + spaceId + ")]").doesNotExist());
+    }
+
+    @Test
+    void onlyAdminsCanChangeSpaces() throws Exception {
+        mockMvc.perform(delete("/api/admin/spaces/{id}", spaceId).with(user("someone").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.SPACES)
+                .tag("result", result)
+                .functionCounter().count();
+    }
+}
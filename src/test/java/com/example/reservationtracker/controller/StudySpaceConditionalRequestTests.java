@@ -0,0 +1,127 @@
+package com.example.reservationtracker.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+import com.example.reservationtracker.service.ReservationService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudySpaceConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TestFixtures fixtures;
+    private Long spaceId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        spaceId = fixtures.space("Polled Room").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void spaceIsRevalidatedUntilItChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/spaces/{id}", spaceId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+
+        mockMvc.perform(get("/api/spaces/{id}", spaceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/admin/spaces/{id}", spaceId)
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"type\":\"room\",\"location\":\"Library\","
+                                + "\"capacity\":4,\"noiseLevel\":\"QUIET\"}"))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/spaces/{id}", spaceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void availabilityIsAnsweredWithoutQueriesUntilABookingChangesIt() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(20);
+        String etag = mockMvc.perform(get("/api/spaces/{id}/availability", spaceId).param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The first request looked up the space and loaded the day's schedule
+        long queriesBefore = repositoryInvocations();
+        assertThat(queriesBefore).isPositive();
+        mockMvc.perform(get("/api/spaces/{id}/availability", spaceId)
+                        .param("date", date.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(repositoryInvocations()).isEqualTo(queriesBefore);
+
+        book(date);
+
+        mockMvc.perform(get("/api/spaces/{id}/availability", spaceId)
+                        .param("date", date.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private void book(LocalDate date) {
+        TestFixtures.authenticate(fixtures.user("poller"));
+        try {
+            reservationService.createReservation(spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private long repositoryInvocations() {
+        return meterRegistry.find("spring.data.repository.invocations").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.reservationtracker.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram in microseconds. Every power of two is split into 64
+ * sub-buckets, so recorded values keep roughly 1.5% precision from 1 microsecond up to hours.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(bucketOf(MAX_VALUE) + 1);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    void record(long nanos) {
+        long micros = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(bucketOf(micros));
+        total.increment();
+    }
+
+    // Non-2xx responses that indicate a bug or overload
+    void recordError() {
+        errors.increment();
+    }
+
+    // Expected business rejections, e.g. a booking that lost the race for a slot
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), in microseconds
+    long percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return upperBoundOf(bucket);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    long max() {
+        for (int bucket = counts.length() - 1; bucket >= 0; bucket--) {
+            if (counts.get(bucket) > 0) {
+                return upperBoundOf(bucket);
+            }
+        }
+        return 0;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.reservationtracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end load test: each virtual user repeatedly logs in, searches for free spaces, checks a
+ * space's availability, books it and cancels the booking, against the real HTTP stack on H2.
+ * <p>
+ * Skipped unless {@code -Dloadtest=true} is set, e.g.
+ * {@code mvn test -Dtest=ReservationLoadTest -Dloadtest=true -Dloadtest.concurrency=128}.
+ * Latency percentiles per endpoint are printed and written to {@code target/loadtest/latency-<mode>.csv},
+ * where the mode is {@code virtual} or {@code platform} depending on how the server runs requests.
+ * Once both files exist, throughput and p99 of the two modes are printed side by side, e.g. run once
+ * with {@code -Pjava21} and once with {@code -Pjava21 -Dspring.threads.virtual.enabled=false}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                // Own in-memory database so this context cannot drop the schema of other test contexts
+                "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.example.reservationtracker=WARN"
+        })
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ReservationLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final List<String> ENDPOINTS = List.of("login", "search", "availability", "book", "cancel");
+
+    private final int userCount = Integer.getInteger("loadtest.users", 2000);
+    private final int spaceCount = Integer.getInteger("loadtest.spaces", 2000);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+    private final int days = Integer.getInteger("loadtest.days", 14);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private volatile Map<String, LatencyHistogram> histograms = newHistograms();
+    private volatile boolean running = true;
+
+    private List<Long> spaceIds;
+
+    @Test
+    void loginSearchBookCancel() throws Exception {
+        seed();
+
+        ExecutorService executor = newExecutor(concurrency);
+        Map<String, LatencyHistogram> measured;
+        double elapsedSeconds;
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(this::runVirtualUser);
+            }
+            TimeUnit.SECONDS.sleep(warmupSeconds);
+            histograms = newHistograms();
+            long startedAt = System.nanoTime();
+            TimeUnit.SECONDS.sleep(durationSeconds);
+            measured = histograms;
+            elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        } finally {
+            running = false;
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        report(measured, elapsedSeconds);
+        long errors = measured.values().stream().mapToLong(LatencyHistogram::errors).sum();
+        assertEquals(0, errors, "Requests failed during the load test");
+    }
+
+    private void seed() {
+        // Hash once; BCrypt per seeded user would dominate the setup time
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            User user = new User();
+            user.setUsername(username(i));
+            user.setEmail(username(i) + "@loadtest.example.com");
+            user.setPassword(passwordHash);
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+
+        String[] types = {"room", "pod", "hall", "booth"};
+        StudySpace.NoiseLevel[] noiseLevels = StudySpace.NoiseLevel.values();
+        List<StudySpace> spaces = new ArrayList<>(spaceCount);
+        for (int i = 0; i < spaceCount; i++) {
+            StudySpace space = new StudySpace();
+            space.setName("Load Test Space " + i);
+            space.setType(types[i % types.length]);
+            space.setLocation("Building " + (i % 40) + ", Floor " + (i % 5));
+            space.setCapacity(1 + i % 12);
+            space.setEquipment("whiteboard, power outlets");
+            space.setNoiseLevel(noiseLevels[i % noiseLevels.length]);
+            spaces.add(space);
+        }
+        spaceIds = studySpaceRepository.saveAll(spaces).stream().map(StudySpace::getId).toList();
+    }
+
+    private void runVirtualUser() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            try {
+                runSession(random);
+            } catch (IOException e) {
+                histograms.get("login").recordError();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void runSession(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String username = username(random.nextInt(userCount));
+        HttpResponse<String> login = send("login", post("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}", null));
+        if (login == null) {
+            return;
+        }
+        String token = objectMapper.readTree(login.body()).path("token").asText();
+
+        LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(days));
+        LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(22));
+        LocalTime end = start.plusMinutes(30L * (1 + random.nextInt(2)));
+
+        HttpResponse<String> search = send("search", HttpRequest.newBuilder(uri(
+                "/api/spaces/available?date=" + date + "&startTime=" + start + "&endTime=" + end
+                        + "&capacity=" + (1 + random.nextInt(6)) + "&page=0&size=9"))
+                .GET()
+                .build());
+        if (search == null) {
+            return;
+        }
+        JsonNode found = objectMapper.readTree(search.body()).path("spaces");
+        long spaceId = found.size() > 0
+                ? found.get(random.nextInt(found.size())).path("id").asLong()
+                : spaceIds.get(random.nextInt(spaceIds.size()));
+
+        if (send("availability", post("/api/reservations/availability",
+                "{\"spaceId\":" + spaceId + ",\"date\":\"" + date + "\"}", token)) == null) {
+            return;
+        }
+
+        HttpResponse<String> booking = send("book", post("/api/reservations",
+                "{\"spaceId\":" + spaceId + ",\"date\":\"" + date + "\",\"startTime\":\"" + start
+                        + "\",\"endTime\":\"" + end + "\"}", token));
+        if (booking == null) {
+            return;
+        }
+        long reservationId = objectMapper.readTree(booking.body()).path("id").asLong();
+
+        send("cancel", HttpRequest.newBuilder(uri("/api/reservations/" + reservationId))
+                .header("Authorization", "Bearer " + token)
+                .DELETE()
+                .build());
+    }
+
+    // Sends the request and records its latency; returns null unless the response was 2xx
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        LatencyHistogram histogram = histograms.get(endpoint);
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        histogram.record(System.nanoTime() - started);
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return response;
+        }
+        // Another virtual user took the slot first (400), or the concurrency limiter shed the request (503)
+        if ((endpoint.equals("book") && status == 400) || status == 503) {
+            histogram.recordRejected();
+        } else {
+            histogram.recordError();
+        }
+        return null;
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void report(Map<String, LatencyHistogram> measured, double elapsedSeconds) throws IOException {
+        String mode = threadMode();
+        Path csv = csvPath(mode);
+        Files.createDirectories(csv.getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv))) {
+            writer.println("endpoint,requests,errors,rejected,rps,p50_us,p90_us,p99_us,p999_us,max_us");
+            System.out.printf("%nLoad test: %d users, %d spaces, %d concurrent sessions, %.1f s, %s threads%n",
+                    userCount, spaceCount, concurrency, elapsedSeconds, mode);
+            System.out.printf("%-13s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "rejected", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (String endpoint : ENDPOINTS) {
+                LatencyHistogram histogram = measured.get(endpoint);
+                double rps = histogram.count() / elapsedSeconds;
+                System.out.printf("%-13s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        endpoint, histogram.count(), histogram.errors(), histogram.rejected(), rps,
+                        histogram.percentile(50) / 1000.0, histogram.percentile(90) / 1000.0,
+                        histogram.percentile(99) / 1000.0, histogram.percentile(99.9) / 1000.0,
+                        histogram.max() / 1000.0);
+                writer.printf("%s,%d,%d,%d,%.1f,%d,%d,%d,%d,%d%n",
+                        endpoint, histogram.count(), histogram.errors(), histogram.rejected(), rps,
+                        histogram.percentile(50), histogram.percentile(90), histogram.percentile(99),
+                        histogram.percentile(99.9), histogram.max());
+            }
+        }
+        compareWithOtherMode(mode);
+    }
+
+    // Prints requests/s and p99 per endpoint next to the last run in the other thread mode, if any
+    private void compareWithOtherMode(String mode) throws IOException {
+        Path virtual = csvPath("virtual");
+        Path platform = csvPath("platform");
+        if (!Files.exists(virtual) || !Files.exists(platform)) {
+            return;
+        }
+        Map<String, String[]> virtualRows = readCsv(virtual);
+        Map<String, String[]> platformRows = readCsv(platform);
+        System.out.printf("%nPlatform vs virtual threads (this run: %s)%n", mode);
+        System.out.printf("%-13s %12s %12s %12s %12s%n",
+                "endpoint", "platform rps", "virtual rps", "platform p99", "virtual p99");
+        for (String endpoint : ENDPOINTS) {
+            String[] p = platformRows.get(endpoint);
+            String[] v = virtualRows.get(endpoint);
+            if (p == null || v == null) {
+                continue;
+            }
+            System.out.printf("%-13s %12s %12s %9.2f ms %9.2f ms%n", endpoint, p[4], v[4],
+                    Long.parseLong(p[7]) / 1000.0, Long.parseLong(v[7]) / 1000.0);
+        }
+    }
+
+    private static Map<String, String[]> readCsv(Path csv) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        Files.readAllLines(csv).stream().skip(1).map(line -> line.split(",")).forEach(row -> rows.put(row[0], row));
+        return rows;
+    }
+
+    private String threadMode() {
+        return Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+    }
+
+    private static Path csvPath(String mode) {
+        return Path.of("target", "loadtest", "latency-" + mode + ".csv");
+    }
+
+    private static Map<String, LatencyHistogram> newHistograms() {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        ENDPOINTS.forEach(endpoint -> histograms.put(endpoint, new LatencyHistogram()));
+        return histograms;
+    }
+
+    // Virtual threads when running on Java 21+, otherwise one platform thread per session
+    private static ExecutorService newExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    private static String username(int index) {
+        return "loaduser" + index;
+    }
+}
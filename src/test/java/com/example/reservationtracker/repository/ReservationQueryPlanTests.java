@@ -0,0 +1,120 @@
+package com.example.reservationtracker.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the hot reservation queries are planned on the composite indexes from the Flyway
+ * migrations. Runs EXPLAIN on H2, whose plans name the index chosen for each table, after loading
+ * enough rows for the cost-based optimizer to see realistic selectivity. ANALYZE commits, so the rows
+ * go into a database of their own rather than the one the other repository tests share, and are
+ * deleted once the class is done.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationQueryPlanTests {
+
+    private static final int USERS = 50;
+    private static final int SPACES = 20;
+    private static final int RESERVATIONS = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void loadRows() {
+        // Ids are left to the database; the entities' id_generators blocks are never touched here
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[] {"plan-user-" + i, "plan-user-" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, role) VALUES (?, ?, 'x', 'USER')", users);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE username LIKE 'plan-user-%' ORDER BY id", Long.class);
+
+        List<Object[]> spaces = new ArrayList<>();
+        for (int i = 1; i <= SPACES; i++) {
+            spaces.add(new Object[] {"Plan Room " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO study_spaces (name, type, location, capacity) VALUES (?, 'room', 'Library', 4)", spaces);
+        List<Long> spaceIds = jdbcTemplate.queryForList(
+                "SELECT id FROM study_spaces WHERE name LIKE 'Plan Room %' ORDER BY id", Long.class);
+
+        String[] statuses = {"CONFIRMED", "CONFIRMED", "CANCELLED", "COMPLETED"};
+        LocalDate firstDay = LocalDate.of(2029, 1, 1);
+        List<Object[]> reservations = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            LocalTime start = LocalTime.of(8 + i % 10, 0);
+            reservations.add(new Object[] {
+                    userIds.get(i % USERS), spaceIds.get((i / 7) % SPACES), firstDay.plusDays(i % 730),
+                    start, start.plusHours(1), statuses[i % statuses.length]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (user_id, space_id, date, start_time, end_time, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", reservations);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void deleteRows() {
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM study_spaces");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void overlapCheckUsesSpaceDateStatusIndex() {
+        String plan = explain("SELECT COUNT(*) FROM reservations r " +
+                "WHERE r.space_id = 1 AND r.date = DATE '2030-01-15' AND r.status = 'CONFIRMED' " +
+                "AND r.start_time < TIME '11:00:00' AND r.end_time > TIME '10:00:00'");
+
+        assertThat(plan).contains("IDX_RESERVATIONS_SPACE_DATE_STATUS_TIMES");
+    }
+
+    @Test
+    void availableSpaceSearchUsesSpaceDateStatusIndex() {
+        String plan = explain("SELECT s.id FROM study_spaces s WHERE NOT EXISTS (" +
+                "SELECT r.id FROM reservations r WHERE r.space_id = s.id " +
+                "AND r.date = DATE '2030-01-15' AND r.status = 'CONFIRMED' " +
+                "AND r.start_time < TIME '11:00:00' AND r.end_time > TIME '10:00:00')");
+
+        assertThat(plan).contains("IDX_RESERVATIONS_SPACE_DATE_STATUS_TIMES");
+    }
+
+    @Test
+    void upcomingReservationsUseUserStatusDateIndex() {
+        String plan = explain("SELECT r.id FROM reservations r " +
+                "WHERE r.user_id = 1 AND r.status = 'CONFIRMED' " +
+                "AND r.date >= DATE '2030-01-15' " +
+                "AND (r.date > DATE '2030-01-15' OR r.end_time > TIME '10:00:00') " +
+                "ORDER BY r.date, r.start_time, r.id");
+
+        assertThat(plan).contains("IDX_RESERVATIONS_USER_STATUS_DATE_END");
+    }
+
+    @Test
+    void historyListingUsesUserDateStartIndex() {
+        String plan = explain("SELECT r.id FROM reservations r " +
+                "WHERE r.user_id = 1 AND (r.date, r.start_time, r.id) > (DATE '2030-01-15', TIME '10:00:00', 42) " +
+                "ORDER BY r.date, r.start_time, r.id LIMIT 51");
+
+        assertThat(plan).contains("IDX_RESERVATIONS_USER_DATE_START");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.reservationtracker.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.service.ReservationCursor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.reservationtracker.service.ReservationCursor.FIRST;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReservationRepositoryTests {
+
+    private static final int RESERVATIONS = 20;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private StudySpace space;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("listing-user");
+        user.setEmail("listing-user@example.com");
+        user.setPassword("not-used");
+        entityManager.persist(user);
+
+        space = new StudySpace();
+        space.setName("Listing Room");
+        space.setType("room");
+        space.setLocation("Library");
+        space.setCapacity(4);
+        entityManager.persist(space);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        for (int i = 0; i < RESERVATIONS; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setStudySpace(space);
+            reservation.setDate(firstDay.plusDays(i % 5));
+            reservation.setStartTime(LocalTime.of(8 + i / 5, 0));
+            reservation.setEndTime(LocalTime.of(9 + i / 5, 0));
+            entityManager.persist(reservation);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingsRunOneQueryWithoutLoadingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ReservationView> byUser = reservationRepository.findViewsByUserId(
+                user.getId(), FIRST.date(), FIRST.startTime(), FIRST.id(), Limit.unlimited());
+        List<ReservationView> bySpace = reservationRepository.findViewsBySpaceId(
+                space.getId(), FIRST.date(), FIRST.startTime(), FIRST.id(), Limit.unlimited());
+        List<ReservationView> upcoming = reservationRepository.findUpcomingReservations(
+                user.getId(), LocalDate.now(), LocalTime.now(),
+                FIRST.date(), FIRST.startTime(), FIRST.id(), Limit.unlimited());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(byUser).hasSize(RESERVATIONS);
+        assertThat(bySpace).hasSize(RESERVATIONS);
+        assertThat(upcoming).hasSize(RESERVATIONS);
+
+        ReservationView first = byUser.get(0);
+        assertThat(first.getUsername()).isEqualTo("listing-user");
+        assertThat(first.getSpaceName()).isEqualTo("Listing Room");
+        assertThat(first.getStatus()).isEqualTo(Reservation.ReservationStatus.CONFIRMED);
+        // Ordered by (date, startTime, id)
+        for (int i = 1; i < byUser.size(); i++) {
+            ReservationView previous = byUser.get(i - 1);
+            ReservationView current = byUser.get(i);
+            assertThat(current.getDate().isAfter(previous.getDate())
+                    || current.getDate().equals(previous.getDate())
+                    && !current.getStartTime().isBefore(previous.getStartTime())).isTrue();
+        }
+    }
+
+    @Test
+    void keysetPagesCoverEveryRowOnce() {
+        List<ReservationView> all = reservationRepository.findViewsByUserId(
+                user.getId(), FIRST.date(), FIRST.startTime(), FIRST.id(), Limit.unlimited());
+
+        List<Long> paged = new ArrayList<>();
+        ReservationCursor cursor = FIRST;
+        while (true) {
+            List<ReservationView> page = reservationRepository.findViewsBySpaceId(
+                    space.getId(), cursor.date(), cursor.startTime(), cursor.id(), Limit.of(7));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(view -> paged.add(view.getId()));
+            // Round-trip through the opaque token as a client would
+            cursor = ReservationCursor.decode(ReservationCursor.after(page.get(page.size() - 1)).encode());
+        }
+
+        assertThat(paged).containsExactlyElementsOf(all.stream().map(ReservationView::getId).toList());
+    }
+
+    @Test
+    void bulkInsertsAreBatched() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Reservation> reservations = new ArrayList<>();
+        LocalDate day = LocalDate.now().plusDays(30);
+        for (int i = 0; i < 120; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setStudySpace(space);
+            reservation.setDate(day.plusDays(i));
+            reservation.setStartTime(LocalTime.of(10, 0));
+            reservation.setEndTime(LocalTime.of(11, 0));
+            reservations.add(reservation);
+        }
+        reservationRepository.saveAll(reservations);
+        entityManager.flush();
+
+        // Pooled ids are assigned before the flush, so the inserts go out as JDBC batches of 50
+        // rather than one statement per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(reservations).allSatisfy(reservation -> assertThat(reservation.getId()).isNotNull());
+    }
+}
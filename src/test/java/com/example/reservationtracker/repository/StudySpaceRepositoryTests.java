@@ -0,0 +1,147 @@
+package com.example.reservationtracker.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class StudySpaceRepositoryTests {
+
+    private static final LocalDate DAY = LocalDate.of(2031, 5, 6);
+    private static final LocalTime DEFAULT_OPENING = LocalTime.of(8, 0);
+    private static final LocalTime DEFAULT_CLOSING = LocalTime.of(22, 0);
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Unique per test, so spaces committed by other test classes never match
+    private String type;
+    private User user;
+    private StudySpace firstAlpha;
+    private StudySpace secondAlpha;
+
+    @BeforeEach
+    void setUp() {
+        type = "search-" + System.nanoTime();
+        user = new User();
+        user.setUsername(type);
+        user.setEmail(type + "@example.com");
+        user.setPassword("not-used");
+        entityManager.persist(user);
+
+        // Free from 10:00 to 11:00: persisted in id order
+        firstAlpha = space("Alpha", 2, null, null);
+        secondAlpha = space("Alpha", 2, null, null);
+        StudySpace beta = space("Beta", 2, null, null);
+        space("Small", 1, null, null);
+        StudySpace cancelled = space("Cancelled", 3, null, null);
+        space("Morning", 1, LocalTime.of(7, 0), LocalTime.of(11, 0));
+
+        // Not free from 10:00 to 11:00
+        StudySpace busy = space("Aardvark", 2, null, null);
+        space("Evening", 1, LocalTime.of(12, 0), LocalTime.of(14, 0));
+
+        // Back-to-back bookings touch the window without overlapping it
+        reservation(beta, "09:00", "10:00", Reservation.ReservationStatus.CONFIRMED);
+        reservation(beta, "11:00", "12:00", Reservation.ReservationStatus.CONFIRMED);
+        reservation(busy, "10:30", "10:45", Reservation.ReservationStatus.CONFIRMED);
+        reservation(cancelled, "10:00", "11:00", Reservation.ReservationStatus.CANCELLED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findsFreeOpenSpacesSmallestFirst() {
+        Page<StudySpace> page = findAvailable("10:00", "11:00", DEFAULT_OPENING, PageRequest.of(0, 20));
+
+        // Capacity, then name, then id
+        assertThat(page.getContent()).extracting(StudySpace::getName)
+                .containsExactly("Morning", "Small", "Alpha", "Alpha", "Beta", "Cancelled");
+        assertThat(page.getContent().get(2).getId()).isEqualTo(firstAlpha.getId());
+        assertThat(page.getContent().get(3).getId()).isEqualTo(secondAlpha.getId());
+    }
+
+    @Test
+    void overlapIsHalfOpen() {
+        // Beta is booked 09:00-10:00 and 11:00-12:00
+        assertThat(findAvailable("10:00", "11:00", DEFAULT_OPENING, PageRequest.of(0, 20)).getContent())
+                .extracting(StudySpace::getName).contains("Beta");
+        assertThat(findAvailable("09:59", "11:00", DEFAULT_OPENING, PageRequest.of(0, 20)).getContent())
+                .extracting(StudySpace::getName).doesNotContain("Beta");
+        assertThat(findAvailable("10:00", "11:01", DEFAULT_OPENING, PageRequest.of(0, 20)).getContent())
+                .extracting(StudySpace::getName).doesNotContain("Beta");
+    }
+
+    @Test
+    void spacesWithoutOwnHoursUseTheDefaults() {
+        // Before the default opening time only the space opening at 07:00 qualifies
+        assertThat(findAvailable("07:30", "08:30", DEFAULT_OPENING, PageRequest.of(0, 20)).getContent())
+                .extracting(StudySpace::getName).containsExactly("Morning");
+
+        // An earlier default opens every space without hours of its own
+        assertThat(findAvailable("07:30", "08:30", LocalTime.of(7, 0), PageRequest.of(0, 20)).getContent())
+                .extracting(StudySpace::getName)
+                .containsExactly("Morning", "Small", "Aardvark", "Alpha", "Alpha", "Beta", "Cancelled");
+
+        // Own hours win over the defaults in both directions
+        assertThat(findAvailable("12:30", "13:30", DEFAULT_OPENING, PageRequest.of(0, 20)).getContent())
+                .extracting(StudySpace::getName).contains("Evening").doesNotContain("Morning");
+    }
+
+    @Test
+    void countQueryMatchesTheFilter() {
+        Page<StudySpace> first = findAvailable("10:00", "11:00", DEFAULT_OPENING, PageRequest.of(0, 4));
+        Page<StudySpace> second = findAvailable("10:00", "11:00", DEFAULT_OPENING, PageRequest.of(1, 4));
+
+        assertThat(first.getTotalElements()).isEqualTo(6);
+        assertThat(first.getTotalPages()).isEqualTo(2);
+        assertThat(first.getContent()).extracting(StudySpace::getName)
+                .containsExactly("Morning", "Small", "Alpha", "Alpha");
+        assertThat(second.getContent()).extracting(StudySpace::getName).containsExactly("Beta", "Cancelled");
+    }
+
+    private Page<StudySpace> findAvailable(String start, String end, LocalTime defaultOpening, Pageable pageable) {
+        return studySpaceRepository.findAvailable(type, null, null, DAY,
+                LocalTime.parse(start), LocalTime.parse(end), defaultOpening, DEFAULT_CLOSING, pageable);
+    }
+
+    private StudySpace space(String name, int capacity, LocalTime openingTime, LocalTime closingTime) {
+        StudySpace space = new StudySpace();
+        space.setName(name);
+        space.setType(type);
+        space.setLocation("Library");
+        space.setCapacity(capacity);
+        space.setOpeningTime(openingTime);
+        space.setClosingTime(closingTime);
+        return entityManager.persist(space);
+    }
+
+    private void reservation(StudySpace space, String start, String end, Reservation.ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setStudySpace(space);
+        reservation.setDate(DAY);
+        reservation.setStartTime(LocalTime.parse(start));
+        reservation.setEndTime(LocalTime.parse(end));
+        reservation.setStatus(status);
+        entityManager.persist(reservation);
+    }
+}
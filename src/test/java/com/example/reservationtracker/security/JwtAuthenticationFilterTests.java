@@ -0,0 +1,137 @@
+package com.example.reservationtracker.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.model.User;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void authenticatesTokensCarryingAccountClaims() throws Exception {
+        User user = fixtures.user("claims", User.Role.USER);
+
+        listReservations(tokenProvider.generateToken(UserPrincipal.from(user))).andExpect(status().isOk());
+    }
+
+    @Test
+    void authenticatesTokensIssuedWithoutAccountClaims() throws Exception {
+        User user = fixtures.user("legacy", User.Role.USER);
+
+        listReservations(tokenProvider.generateToken(user.getUsername())).andExpect(status().isOk());
+    }
+
+    @Test
+    void roleChangeRevokesExistingTokens() throws Exception {
+        User admin = fixtures.user("admin", User.Role.ADMIN);
+        User user = fixtures.user("promoted", User.Role.USER);
+        String oldToken = tokenProvider.generateToken(principalCache.get(user.getUsername()));
+        listReservations(oldToken).andExpect(status().isOk());
+
+        changeRole(tokenProvider.generateToken(UserPrincipal.from(admin)), user.getId(), User.Role.ADMIN)
+                .andExpect(status().isNoContent());
+
+        listReservations(oldToken).andExpect(status().isForbidden());
+        UserPrincipal current = principalCache.get(user.getUsername());
+        assertThat(current.getRole()).isEqualTo(User.Role.ADMIN);
+        assertThat(current.getTokenVersion()).isEqualTo(1);
+
+        // A token issued after the change carries the new role, and is itself revoked by the next change
+        String newToken = tokenProvider.generateToken(current);
+        changeRole(newToken, user.getId(), User.Role.USER).andExpect(status().isNoContent());
+        listReservations(newToken).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsTokensOfDeletedOrRecreatedUsers() throws Exception {
+        User user = fixtures.user("deleted", User.Role.USER);
+        String token = tokenProvider.generateToken(principalCache.get(user.getUsername()));
+
+        userRepository.delete(user);
+        principalCache.evict(user.getUsername());
+        listReservations(token).andExpect(status().isForbidden());
+
+        // Same username, different account
+        User recreated = new User();
+        recreated.setUsername(user.getUsername());
+        recreated.setEmail("recreated-" + user.getEmail());
+        recreated.setPassword("not-used");
+        fixtures.save(recreated);
+        listReservations(token).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void passwordRehashEvictsTheCachedPrincipal() {
+        User user = fixtures.user("rehashed", User.Role.USER);
+        UserPrincipal cached = principalCache.get(user.getUsername());
+
+        // Changed behind the cache's back, so only the eviction makes it visible
+        user.setRole(User.Role.ADMIN);
+        userRepository.save(user);
+        assertThat(principalCache.get(user.getUsername()).getRole()).isEqualTo(User.Role.USER);
+
+        userDetailsService.updatePassword(cached, "new-hash");
+
+        assertThat(principalCache.get(user.getUsername()).getRole()).isEqualTo(User.Role.ADMIN);
+    }
+
+    private ResultActions listReservations(String token) throws Exception {
+        return mockMvc.perform(get("/api/reservations/upcoming")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private ResultActions changeRole(String token, Long userId, User.Role role) throws Exception {
+        return mockMvc.perform(put("/api/admin/users/{id}/role", userId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"role\":\"" + role.name() + "\"}"));
+    }
+}
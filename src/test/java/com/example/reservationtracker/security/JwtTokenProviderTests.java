@@ -0,0 +1,87 @@
+package com.example.reservationtracker.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import com.example.reservationtracker.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTests {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesRepeatedTokensFromTheCache() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100, meterRegistry);
+        String token = provider.generateToken(principal("alice"));
+
+        Claims first = provider.parseToken(token);
+        Claims second = provider.parseToken(token);
+
+        assertThat(first.getSubject()).isEqualTo("alice");
+        assertThat(second).isSameAs(first);
+        assertThat(parses("verified")).isEqualTo(1);
+        assertThat(parses("cached")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCachedTokensOnceExpired() throws InterruptedException {
+        // The exp claim is truncated to whole seconds, so the token expires 2 to 3 seconds from now
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_000, 100, meterRegistry);
+        String token = provider.generateToken(principal("alice"));
+        assertThat(provider.parseToken(token)).isNotNull();
+
+        Thread.sleep(3_100);
+
+        assertThat(provider.parseToken(token)).isNull();
+        assertThat(parses("cached")).isZero();
+        assertThat(parses("invalid")).isEqualTo(1);
+        // Dropped from the cache: the next attempt is verified again, and fails as expired
+        assertThat(provider.parseToken(token)).isNull();
+        assertThat(parses("invalid")).isEqualTo(2);
+    }
+
+    @Test
+    void neverServesTamperedTokensFromTheCache() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100, meterRegistry);
+        String token = provider.generateToken(principal("alice"));
+        assertThat(provider.parseToken(token)).isNotNull();
+
+        // Same signature over a payload naming another user
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"alice\"", "\"admin\"");
+        String forgedPayload = parts[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+        // Valid payload with a changed signature (the first character, whose bits are all significant)
+        char first = parts[2].charAt(0);
+        String forgedSignature = parts[0] + "." + parts[1] + "." + (first == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(provider.parseToken(forgedPayload)).isNull();
+            assertThat(provider.parseToken(forgedSignature)).isNull();
+        }
+        assertThat(parses("invalid")).isEqualTo(4);
+        assertThat(parses("cached")).isZero();
+        // The genuine token is still served from the cache
+        assertThat(provider.parseToken(token).getSubject()).isEqualTo("alice");
+        assertThat(parses("cached")).isEqualTo(1);
+    }
+
+    private long parses(String outcome) {
+        return meterRegistry.get("auth.jwt.parse").tag("outcome", outcome).timer().count();
+    }
+
+    private static UserPrincipal principal(String username) {
+        return new UserPrincipal(42L, username, username + "@example.com", null, User.Role.USER);
+    }
+}
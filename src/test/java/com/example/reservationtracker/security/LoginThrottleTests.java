@@ -0,0 +1,55 @@
+package com.example.reservationtracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import com.example.reservationtracker.exception.TooManyRequestsException;
+
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTests {
+
+    private static final String CAMPUS = "192.0.2.1";
+
+    private final LoginThrottle throttle = new LoginThrottle(5, 50, 15, new SimpleMeterRegistry());
+
+    @Test
+    void concurrentSuccessfulLoginsFromOneAddressAreNeverThrottled() {
+        // Every attempt is in flight before the first one completes
+        int attempts = 120;
+        for (int i = 0; i < attempts; i++) {
+            String username = "student-" + i;
+            assertThatNoException().isThrownBy(() -> throttle.reserveAttempt(username, CAMPUS));
+        }
+        for (int i = 0; i < attempts; i++) {
+            throttle.recordSuccess("student-" + i);
+        }
+        assertThatNoException().isThrownBy(() -> throttle.reserveAttempt("student-0", CAMPUS));
+    }
+
+    @Test
+    void failuresFromOneAddressAreThrottled() {
+        for (int i = 0; i < 50; i++) {
+            throttle.reserveAttempt("guess-" + i, CAMPUS);
+            throttle.recordFailure(CAMPUS);
+        }
+
+        assertThatThrownBy(() -> throttle.reserveAttempt("someone-else", CAMPUS))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatNoException().isThrownBy(() -> throttle.reserveAttempt("someone-else", "198.51.100.7"));
+    }
+
+    @Test
+    void inFlightAttemptsCountAgainstTheUsername() {
+        for (int i = 0; i < 5; i++) {
+            throttle.reserveAttempt("alice", "198.51.100." + i);
+        }
+
+        assertThatThrownBy(() -> throttle.reserveAttempt("ALICE", CAMPUS))
+                .isInstanceOf(TooManyRequestsException.class);
+        // An attempt that was never verified gives its slot back
+        throttle.release("alice");
+        assertThatNoException().isThrownBy(() -> throttle.reserveAttempt("alice", CAMPUS));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.reservationtracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.reservationtracker.exception.TooManyRequestsException;
+import com.example.reservationtracker.model.StudySpace;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityBroadcasterTests {
+
+    private final AvailabilityService availabilityService = mock(AvailabilityService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Room for three streams, two per user
+    private final AvailabilityBroadcaster broadcaster = new AvailabilityBroadcaster(availabilityService,
+            mock(StudySpaceService.class), meterRegistry, new MockEnvironment(), 3, 2, 30, 1, 30);
+    private final List<StudySpace> spaces = List.of(space(7L));
+    private final List<LocalDate> dates = List.of(LocalDate.of(2031, 4, 1));
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void failedSnapshotReleasesTheSubscription() {
+        when(availabilityService.getTimeSlots(any(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> broadcaster.subscribe("alice", spaces, dates)).hasMessage("database down");
+        assertThat(subscribers()).isZero();
+
+        // Both of the user's slots are free again
+        broadcaster.subscribe("alice", spaces, dates);
+        broadcaster.subscribe("alice", spaces, dates);
+        assertThat(subscribers()).isEqualTo(2);
+    }
+
+    @Test
+    void oneUserCannotTakeEveryStream() {
+        when(availabilityService.getTimeSlots(any(), any())).thenReturn(List.of());
+        broadcaster.subscribe("alice", spaces, dates);
+        broadcaster.subscribe("alice", spaces, dates);
+
+        assertThatThrownBy(() -> broadcaster.subscribe("alice", spaces, dates))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(subscribers()).isEqualTo(2);
+        // Other users are unaffected
+        broadcaster.subscribe("bob", spaces, dates);
+        assertThat(subscribers()).isEqualTo(3);
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("availability.stream.subscribers").gauge().value();
+    }
+
+    private static StudySpace space(Long id) {
+        StudySpace space = new StudySpace();
+        space.setId(id);
+        return space;
+    }
+}
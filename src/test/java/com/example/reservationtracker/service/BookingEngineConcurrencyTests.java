@@ -0,0 +1,300 @@
+package com.example.reservationtracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.ReservationSlot;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BookingEngineConcurrencyTests {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 4000;
+    private static final int SPACES = 4;
+    private static final int USERS = 16;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationIntervalIndex reservationIndex;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> spaceIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        for (int i = 0; i < SPACES; i++) {
+            spaceIds.add(fixtures.space("Stress Room " + i).getId());
+        }
+        for (int i = 0; i < USERS; i++) {
+            usernames.add(fixtures.user("stress-" + i).getUsername());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void competingBookingsNeverOverlap() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(30);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                Random random = new Random(i);
+                String username = usernames.get(random.nextInt(usernames.size()));
+                Long spaceId = spaceIds.get(random.nextInt(spaceIds.size()));
+                LocalTime startTime = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(24));
+                LocalTime endTime = startTime.plusMinutes(30L * (1 + random.nextInt(4)));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+                    try {
+                        reservationService.createReservation(spaceId, date, startTime, endTime);
+                        booked.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(booked.get() + rejected.get()).isEqualTo(ATTEMPTS);
+        assertThat(booked.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+
+        int stored = 0;
+        for (Long spaceId : spaceIds) {
+            List<ReservationSlot> slots = reservationRepository.findConfirmedSlots(spaceId, date);
+            stored += slots.size();
+            for (int i = 1; i < slots.size(); i++) {
+                assertThat(slots.get(i).getStartTime())
+                        .as("reservation %d overlaps its predecessor", slots.get(i).getId())
+                        .isAfterOrEqualTo(slots.get(i - 1).getEndTime());
+            }
+        }
+        assertThat(stored).isEqualTo(booked.get());
+    }
+
+    @Test
+    void databaseGuardRejectsBookingMissingFromStaleIndex() {
+        LocalDate date = LocalDate.now().plusDays(31);
+        Long spaceId = spaceIds.get(0);
+        // Warm the index, then book behind its back as another node would
+        assertThat(reservationIndex.hasOverlap(spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0))).isFalse();
+
+        Reservation other = new Reservation();
+        other.setUser(userRepository.findByUsername(usernames.get(1)).orElseThrow());
+        other.setStudySpace(studySpaceRepository.findById(spaceId).orElseThrow());
+        other.setDate(date);
+        other.setStartTime(LocalTime.of(10, 0));
+        other.setEndTime(LocalTime.of(11, 0));
+        reservationRepository.save(other);
+
+        double conflictsBefore = databaseConflicts();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usernames.get(0), null, List.of()));
+        try {
+            assertThatThrownBy(() -> reservationService.createReservation(
+                    spaceId, date, LocalTime.of(10, 30), LocalTime.of(11, 30)))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertThat(reservationRepository.findConfirmedSlots(spaceId, date)).hasSize(1);
+        assertThat(databaseConflicts()).isEqualTo(conflictsBefore + 1);
+    }
+
+    @Test
+    void extendIsRejectedByTheUpdateWhenTheIndexIsStale() {
+        LocalDate date = LocalDate.now().plusDays(33);
+        Long spaceId = spaceIds.get(2);
+        Reservation reservation = as(usernames.get(0), () -> reservationService.createReservation(
+                spaceId, date, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+        // Booked behind the index's back, as another node would
+        Reservation other = new Reservation();
+        other.setUser(userRepository.findByUsername(usernames.get(1)).orElseThrow());
+        other.setStudySpace(studySpaceRepository.findById(spaceId).orElseThrow());
+        other.setDate(date);
+        other.setStartTime(LocalTime.of(10, 30));
+        other.setEndTime(LocalTime.of(11, 0));
+        reservationRepository.save(other);
+
+        assertThatThrownBy(() -> as(usernames.get(0),
+                () -> reservationService.extendReservation(reservation.getId(), LocalTime.of(11, 0))))
+                .hasMessage("Cannot extend reservation due to conflicts with other reservations");
+        assertThat(reservationRepository.findById(reservation.getId()).orElseThrow().getEndTime())
+                .isEqualTo(LocalTime.of(10, 0));
+
+        // Up to the other booking's start is still free
+        assertThat(as(usernames.get(0), () -> reservationService.extendReservation(
+                reservation.getId(), LocalTime.of(10, 30))).getEndTime()).isEqualTo(LocalTime.of(10, 30));
+    }
+
+    @Test
+    void staleIndexHitsAreConfirmedAgainstTheDatabase() {
+        LocalDate date = LocalDate.now().plusDays(34);
+        Long spaceId = spaceIds.get(3);
+        // Load the day, so the bookings below are added to it
+        assertThat(reservationIndex.hasOverlap(spaceId, date, LocalTime.of(9, 0), LocalTime.of(12, 0))).isFalse();
+        Reservation mine = as(usernames.get(0), () -> reservationService.createReservation(
+                spaceId, date, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        Reservation theirs = as(usernames.get(1), () -> reservationService.createReservation(
+                spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+
+        // Cancelled behind the index's back, as another node would
+        theirs.setStatus(Reservation.ReservationStatus.CANCELLED);
+        reservationRepository.save(theirs);
+        assertThat(reservationIndex.hasOverlap(spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0))).isTrue();
+
+        double staleBefore = staleIndexHits(BookingMetrics.EXTEND);
+        assertThat(as(usernames.get(0), () -> reservationService.extendReservation(
+                mine.getId(), LocalTime.of(10, 30))).getEndTime()).isEqualTo(LocalTime.of(10, 30));
+        assertThat(staleIndexHits(BookingMetrics.EXTEND)).isEqualTo(staleBefore + 1);
+
+        // New bookings are checked by the database alone, so the stale interval does not block them
+        Reservation late = as(usernames.get(2), () -> reservationService.createReservation(
+                spaceId, date, LocalTime.of(11, 0), LocalTime.of(12, 0)));
+        assertThat(reservationIndex.hasOverlap(spaceId, date, LocalTime.of(11, 0), LocalTime.of(12, 0))).isTrue();
+        late.setStatus(Reservation.ReservationStatus.CANCELLED);
+        reservationRepository.save(late);
+        assertThat(as(usernames.get(3), () -> reservationService.createReservation(
+                spaceId, date, LocalTime.of(11, 0), LocalTime.of(12, 0))).getId()).isNotNull();
+        assertThat(reservationRepository.findConfirmedSlots(spaceId, date)).hasSize(2);
+    }
+
+    @Test
+    void concurrentCancelAndExtendsNeverLoseAnUpdate() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(32);
+        Long spaceId = spaceIds.get(1);
+        String owner = usernames.get(2);
+        Reservation reservation = as(owner, () -> reservationService.createReservation(
+                spaceId, date, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+        // The owner's cancel races extensions to ever later end times and a stranger's cancel
+        List<LocalTime> extendedTo = new CopyOnWriteArrayList<>();
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger strangerRejected = new AtomicInteger();
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            LocalTime newEndTime = LocalTime.of(10, 0).plusMinutes(15L * i);
+            tasks.add(() -> as(owner, () -> {
+                try {
+                    extendedTo.add(reservationService.extendReservation(reservation.getId(), newEndTime).getEndTime());
+                } catch (IllegalStateException e) {
+                    // Cancelled first, changed by another extension, or no longer later than the end time
+                }
+                return null;
+            }));
+        }
+        tasks.add(() -> as(owner, () -> {
+            reservationService.cancelReservation(reservation.getId());
+            return cancelled.incrementAndGet();
+        }));
+        tasks.add(() -> as(usernames.get(3), () -> {
+            try {
+                reservationService.cancelReservation(reservation.getId());
+            } catch (IllegalStateException e) {
+                strangerRejected.incrementAndGet();
+            }
+            return null;
+        }));
+
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThat(strangerRejected.get()).isEqualTo(1);
+        // No extension overwrote the cancel, and the stored end time is the latest successful extension
+        Reservation stored = reservationRepository.findById(reservation.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(Reservation.ReservationStatus.CANCELLED);
+        assertThat(stored.getEndTime()).isEqualTo(
+                extendedTo.stream().max(LocalTime::compareTo).orElse(LocalTime.of(10, 0)));
+        assertThat(reservationIndex.hasOverlap(spaceId, date, LocalTime.of(9, 0), LocalTime.of(18, 0))).isFalse();
+    }
+
+    private static <T> T as(String username, Supplier<T> work) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        try {
+            return work.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private double staleIndexHits(String operation) {
+        return meterRegistry.counter("reservations.booking.index.stale", "operation", operation).count();
+    }
+
+    private double databaseConflicts() {
+        return meterRegistry.counter("reservations.booking.conflicts",
+                "operation", BookingMetrics.CREATE, "source", "database").count();
+    }
+}
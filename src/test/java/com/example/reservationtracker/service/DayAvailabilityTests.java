@@ -0,0 +1,80 @@
+package com.example.reservationtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.reservationtracker.dto.ReservationDto.TimeSlot;
+import com.example.reservationtracker.repository.ReservationSlot;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class DayAvailabilityTests {
+
+    private static final int OPEN = LocalTime.of(8, 0).toSecondOfDay();
+    private static final int CLOSE = LocalTime.of(20, 0).toSecondOfDay();
+
+    @Test
+    void marksSlotsTouchedByReservations() {
+        DayAvailability availability = build(5, slot(1L, "09:00", "10:15"), slot(2L, "19:30", "21:00"));
+
+        List<TimeSlot> slots = availability.toTimeSlots(30);
+
+        assertThat(slots).hasSize(24);
+        assertThat(slots.get(0).isAvailable()).isTrue();                 // 08:00
+        assertThat(slots.get(2).isAvailable()).isFalse();                // 09:00
+        assertThat(slots.get(4).isAvailable()).isFalse();                // 10:00, partly booked
+        assertThat(slots.get(5).isAvailable()).isTrue();                 // 10:30
+        assertThat(slots.get(23).isAvailable()).isFalse();               // 19:30, clipped at closing
+    }
+
+    @Test
+    void answersRangeQueriesAcrossWordBoundaries() {
+        // One-minute buckets give 720 bits, so ranges span several longs
+        DayAvailability availability = build(1, slot(1L, "12:00", "12:01"));
+
+        assertThat(availability.isFree(LocalTime.of(8, 0), LocalTime.of(12, 0))).isTrue();
+        assertThat(availability.isFree(LocalTime.of(8, 0), LocalTime.of(12, 1))).isFalse();
+        assertThat(availability.isFree(LocalTime.of(12, 1), LocalTime.of(20, 0))).isTrue();
+        assertThat(availability.isFree(LocalTime.of(7, 0), LocalTime.of(9, 0))).isFalse();
+        assertThat(availability.isFree(LocalTime.of(19, 0), LocalTime.of(20, 30))).isFalse();
+    }
+
+    @Test
+    void listsMaximalFreeRanges() {
+        DayAvailability availability = build(5, slot(1L, "08:00", "09:00"), slot(2L, "13:00", "14:00"));
+
+        assertThat(availability.freeRanges())
+                .extracting(TimeSlot::getStartTime, TimeSlot::getEndTime)
+                .containsExactly(
+                        tuple(LocalTime.of(9, 0), LocalTime.of(13, 0)),
+                        tuple(LocalTime.of(14, 0), LocalTime.of(20, 0)));
+        assertThat(build(5, slot(1L, "06:00", "22:00")).isFullyBooked()).isTrue();
+    }
+
+    private DayAvailability build(int granularityMinutes, ReservationSlot... slots) {
+        ReservationIntervalIndex.DaySchedule schedule = ReservationIntervalIndex.DaySchedule.of(List.of(slots), 0L);
+        return schedule.availability(OPEN, CLOSE, granularityMinutes * 60);
+    }
+
+    private ReservationSlot slot(Long id, String start, String end) {
+        return new ReservationSlot() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalTime getStartTime() {
+                return LocalTime.parse(start);
+            }
+
+            @Override
+            public LocalTime getEndTime() {
+                return LocalTime.parse(end);
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.reservationtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTests {
+
+    // A Wednesday
+    private static final LocalDate START = LocalDate.of(2030, 1, 2);
+
+    @Test
+    void defaultsToTheStartWeekdayEveryWeek() {
+        List<LocalDate> dates = new RecurrenceRule(START, 1, null, 3, null).expand(60);
+
+        assertThat(dates).containsExactly(START, START.plusWeeks(1), START.plusWeeks(2));
+    }
+
+    @Test
+    void skipsWeekdaysBeforeTheStartAndStopsAtTheEndDate() {
+        List<LocalDate> dates = new RecurrenceRule(
+                START, 2, EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), null, LocalDate.of(2030, 1, 14))
+                .expand(60);
+
+        // Monday Dec 31 precedes the start; the next booked week is two weeks later
+        assertThat(dates).containsExactly(LocalDate.of(2030, 1, 4), LocalDate.of(2030, 1, 14));
+    }
+
+    @Test
+    void rejectsRulesWithoutAnyDate() {
+        // Only Mondays, from a Wednesday to the Thursday of the same week
+        RecurrenceRule rule = new RecurrenceRule(START, 1, EnumSet.of(DayOfWeek.MONDAY), null, START.plusDays(1));
+
+        assertThatThrownBy(() -> rule.expand(60))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No selected weekday falls between the start and end dates");
+    }
+
+    @Test
+    void rejectsSeriesLongerThanTheCap() {
+        RecurrenceRule rule = new RecurrenceRule(START, 1, EnumSet.allOf(DayOfWeek.class), null, START.plusYears(1));
+
+        assertThatThrownBy(() -> rule.expand(60)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RecurrenceRule(START, 1, null, null, null).expand(60))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.reservationtracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RecurringReservationTests {
+
+    private static final LocalTime START = LocalTime.of(14, 0);
+    private static final LocalTime END = LocalTime.of(16, 0);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TestFixtures fixtures;
+    private Long spaceId;
+    private LocalDate firstDate;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        spaceId = fixtures.space("Recurring Room").getId();
+        TestFixtures.authenticate(fixtures.user("recurring"));
+
+        firstDate = LocalDate.now().plusDays(7);
+        // Someone else already holds the third week
+        reservationService.createReservation(spaceId, firstDate.plusWeeks(2), LocalTime.of(15, 0), LocalTime.of(17, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void atomicSeriesWithAConflictBooksNothing() {
+        List<RecurringOccurrence> occurrences = reservationService.createRecurringReservations(
+                spaceId, new RecurrenceRule(firstDate, 1, null, 4, null), START, END, true);
+
+        assertThat(occurrences).extracting(RecurringOccurrence::outcome).containsExactly(
+                RecurringOccurrence.Outcome.SKIPPED,
+                RecurringOccurrence.Outcome.SKIPPED,
+                RecurringOccurrence.Outcome.CONFLICT,
+                RecurringOccurrence.Outcome.SKIPPED);
+        assertThat(reservationRepository.findConfirmedSlotsInRange(
+                List.of(spaceId), firstDate, firstDate.plusWeeks(3))).hasSize(1);
+    }
+
+    @Test
+    void partialSeriesBooksEveryFreeDate() {
+        List<RecurringOccurrence> occurrences = reservationService.createRecurringReservations(
+                spaceId, new RecurrenceRule(firstDate, 1, null, 4, null), START, END, false);
+
+        assertThat(occurrences).extracting(RecurringOccurrence::outcome).containsExactly(
+                RecurringOccurrence.Outcome.BOOKED,
+                RecurringOccurrence.Outcome.BOOKED,
+                RecurringOccurrence.Outcome.CONFLICT,
+                RecurringOccurrence.Outcome.BOOKED);
+        assertThat(occurrences.get(0).reservation().getId()).isNotNull();
+        assertThat(reservationRepository.findConfirmedSlotsInRange(
+                List.of(spaceId), firstDate, firstDate.plusWeeks(3))).hasSize(4);
+
+        // The booked dates are committed, so the range query of the next series finds them
+        List<RecurringOccurrence> retry = reservationService.createRecurringReservations(
+                spaceId, new RecurrenceRule(firstDate, 1, null, 1, null), START, END, true);
+        assertThat(retry).extracting(RecurringOccurrence::outcome)
+                .containsExactly(RecurringOccurrence.Outcome.CONFLICT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.reservationtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationCursorTests {
+
+    @Test
+    void roundTripsThroughOpaqueToken() {
+        ReservationCursor cursor = new ReservationCursor(LocalDate.of(2030, 5, 17), LocalTime.of(9, 30), 1234L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "/", "+");
+        assertThat(ReservationCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingCursorStartsAtTheBeginning() {
+        assertThat(ReservationCursor.decode(null)).isEqualTo(ReservationCursor.FIRST);
+        assertThat(ReservationCursor.decode("")).isEqualTo(ReservationCursor.FIRST);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> ReservationCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ReservationCursor.decode(new ReservationCursor(
+                LocalDate.of(2030, 1, 1), LocalTime.NOON, 1L).encode().substring(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.reservationtracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.ReservationSlot;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationIntervalIndexTests {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private ReservationRepository reservationRepository;
+    private ReservationIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        index = new ReservationIntervalIndex(reservationRepository, mock(PlatformTransactionManager.class), 100, 300);
+    }
+
+    @Test
+    void loadsDayOnceAndAnswersOverlapsInMemory() {
+        when(reservationRepository.findConfirmedSlots(1L, DATE)).thenReturn(List.of(
+                slot(10L, "09:00", "10:00"),
+                slot(11L, "12:00", "13:30")));
+
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(9, 30), LocalTime.of(11, 0))).isTrue();
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(13, 0), LocalTime.of(14, 0))).isTrue();
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(10, 0), LocalTime.of(12, 0))).isFalse();
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(8, 0), LocalTime.of(9, 0))).isFalse();
+
+        verify(reservationRepository, times(1)).findConfirmedSlots(1L, DATE);
+    }
+
+    @Test
+    void tracksCreateExtendAndCancel() {
+        when(reservationRepository.findConfirmedSlots(1L, DATE)).thenReturn(List.of());
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(9, 0), LocalTime.of(10, 0))).isFalse();
+
+        Reservation reservation = reservation(20L, "09:00", "10:00");
+        index.add(reservation);
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(9, 30), LocalTime.of(10, 30))).isTrue();
+
+        reservation.setEndTime(LocalTime.of(11, 0));
+        index.update(reservation);
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(10, 30), LocalTime.of(12, 0))).isTrue();
+
+        reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
+        index.remove(reservation);
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(9, 0), LocalTime.of(11, 0))).isFalse();
+
+        // An extension committed before the cancel but indexed after it must not bring it back
+        Reservation lateExtension = reservation(20L, "09:00", "12:00");
+        index.update(lateExtension);
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(9, 0), LocalTime.of(12, 0))).isFalse();
+    }
+
+    @Test
+    void detectsOverlapHiddenBehindShorterIntervals() {
+        // A long interval followed by short ones: only the running maximum end catches the overlap
+        when(reservationRepository.findConfirmedSlots(1L, DATE)).thenReturn(List.of(
+                slot(1L, "08:00", "18:00"),
+                slot(2L, "09:00", "09:30"),
+                slot(3L, "10:00", "10:30")));
+
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(15, 0), LocalTime.of(16, 0))).isTrue();
+    }
+
+    @Test
+    void changeMadeWhileTheDayLoadsIsNotLost() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(reservationRepository.findConfirmedSlots(1L, DATE)).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                // The first read misses the reservation committed while it runs
+                loading.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return List.of();
+            }
+            return List.of(slot(20L, "09:00", "10:00"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ReservationIntervalIndex.DaySchedule> first = executor.submit(() -> index.getSchedule(1L, DATE));
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<ReservationIntervalIndex.DaySchedule> second = executor.submit(() -> index.getSchedule(1L, DATE));
+
+            index.add(reservation(20L, "09:00", "10:00"));
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).size()).isEqualTo(1);
+            assertThat(second.get(10, TimeUnit.SECONDS).size()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        // Repeated once because of the change; the waiting reader did not start a load of its own
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(index.hasOverlap(1L, DATE, LocalTime.of(9, 30), LocalTime.of(10, 30))).isTrue();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsAtMostTheConfiguredNumberOfDays() {
+        index = new ReservationIntervalIndex(reservationRepository, mock(PlatformTransactionManager.class), 3, 300);
+        when(reservationRepository.findConfirmedSlots(eq(1L), any())).thenReturn(List.of());
+
+        for (int day = 0; day < 10; day++) {
+            index.getSchedule(1L, DATE.plusDays(day));
+        }
+
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private Reservation reservation(Long id, String start, String end) {
+        StudySpace space = new StudySpace();
+        space.setId(1L);
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setStudySpace(space);
+        reservation.setDate(DATE);
+        reservation.setStartTime(LocalTime.parse(start));
+        reservation.setEndTime(LocalTime.parse(end));
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        return reservation;
+    }
+
+    private ReservationSlot slot(Long id, String start, String end) {
+        return new ReservationSlot() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalTime getStartTime() {
+                return LocalTime.parse(start);
+            }
+
+            @Override
+            public LocalTime getEndTime() {
+                return LocalTime.parse(end);
+            }
+        };
+    }
+}
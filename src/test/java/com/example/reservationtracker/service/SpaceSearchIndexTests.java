@@ -0,0 +1,88 @@
+package com.example.reservationtracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.reservationtracker.model.StudySpace;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpaceSearchIndexTests {
+
+    private StudySpaceRepository studySpaceRepository;
+    private SpaceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        studySpaceRepository = mock(StudySpaceRepository.class);
+        when(studySpaceRepository.findAll()).thenReturn(new ArrayList<>(List.of(
+                space(1L, "Quiet Reading Room", "room", "Main Library, Floor 2", "whiteboard, power outlets"),
+                space(2L, "Group Pod", "pod", "Science Building", "projector, whiteboard"),
+                space(3L, "Library Café Corner", "hall", "Student Union", "coffee machine"),
+                space(4L, "Media Lab", "room", "Engineering Library", "computers, projector"))));
+        index = new SpaceSearchIndex(studySpaceRepository, 10);
+    }
+
+    @Test
+    void ranksNameMatchesAboveOtherFields() {
+        // "library" is in the name of space 3 and in the location of spaces 1 and 4
+        assertThat(ids(index.search("library", 10))).containsExactly(3L, 4L, 1L);
+    }
+
+    @Test
+    void toleratesTyposPrefixesAndAccents() {
+        assertThat(ids(index.search("libary", 10))).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(ids(index.search("projecter", 10))).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(ids(index.search("scie", 10))).containsExactly(2L);
+        assertThat(ids(index.search("cafe", 10))).containsExactly(3L);
+        assertThat(index.search("xylophone", 10)).isEmpty();
+    }
+
+    @Test
+    void requiresEveryWordToMatch() {
+        assertThat(ids(index.search("whiteboard projector", 10))).containsExactly(2L);
+        // "room" is in the name of space 1 but only the type of space 4
+        assertThat(ids(index.search("room library", 10))).containsExactly(1L, 4L);
+        assertThat(index.search(" ,; ", 10)).isEmpty();
+    }
+
+    @Test
+    void appliesChangesWithoutReloading() {
+        assertThat(ids(index.search("microphones", 10))).isEmpty();
+
+        index.put(space(5L, "Recording Studio", "room", "Arts Centre", "microphones"));
+        index.put(space(2L, "Group Studio", "pod", "Science Building", "projector"));
+        assertThat(ids(index.search("microphones", 10))).containsExactly(5L);
+        assertThat(ids(index.search("studio", 10))).containsExactly(2L, 5L, 3L);
+        assertThat(ids(index.search("whiteboard", 10))).containsExactly(1L);
+
+        index.remove(5L);
+        assertThat(ids(index.search("microphones", 10))).isEmpty();
+        assertThat(ids(index.search("studio", 10))).containsExactly(2L, 3L);
+
+        verify(studySpaceRepository, times(1)).findAll();
+    }
+
+    private static List<Long> ids(List<StudySpace> spaces) {
+        return spaces.stream().map(StudySpace::getId).toList();
+    }
+
+    private static StudySpace space(Long id, String name, String type, String location, String equipment) {
+        StudySpace space = new StudySpace();
+        space.setId(id);
+        space.setName(name);
+        space.setType(type);
+        space.setLocation(location);
+        space.setCapacity(4);
+        space.setEquipment(equipment);
+        return space;
+    }
+}
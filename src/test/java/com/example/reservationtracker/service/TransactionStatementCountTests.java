@@ -0,0 +1,106 @@
+package com.example.reservationtracker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.reservationtracker.TestFixtures;
+import com.example.reservationtracker.model.Reservation;
+import com.example.reservationtracker.repository.ReservationRepository;
+import com.example.reservationtracker.repository.StudySpaceRepository;
+import com.example.reservationtracker.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Counts the JDBC statements and Hibernate flushes behind each service operation
+@SpringBootTest
+class TransactionStatementCountTests {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StudySpaceRepository studySpaceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReservationIntervalIndex reservationIndex;
+
+    private TestFixtures fixtures;
+    private Statistics statistics;
+    private Reservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(studySpaceRepository, userRepository);
+        Long spaceId = fixtures.space("Counted Room").getId();
+        TestFixtures.authenticate(fixtures.user("counted"));
+
+        LocalDate date = LocalDate.now().plusDays(2);
+        reservation = reservationService.createReservation(spaceId, date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        // Bookings do not load the day into the index; load it here, as a busy day would already be
+        reservationIndex.getSchedule(spaceId, date);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void readOnlyListingIsOneQueryWithoutFlush() {
+        assertThat(reservationService.getUserReservations(null, null).items()).hasSize(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    @Test
+    void cancelIsOneConditionalUpdateAndOneRead() {
+        Reservation cancelled = reservationService.cancelReservation(reservation.getId());
+
+        assertThat(cancelled.getStatus()).isEqualTo(Reservation.ReservationStatus.CANCELLED);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        // The row is changed by the UPDATE statement, not by dirty checking the loaded entity
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(reservationRepository.findById(reservation.getId()).orElseThrow().getStatus())
+                .isEqualTo(Reservation.ReservationStatus.CANCELLED);
+
+        assertThatThrownBy(() -> reservationService.cancelReservation(reservation.getId()))
+                .hasMessage("Reservation is already cancelled");
+    }
+
+    @Test
+    void extendUpdatesOnlyTheEndTime() {
+        Reservation extended = reservationService.extendReservation(reservation.getId(), LocalTime.of(12, 0));
+
+        assertThat(extended.getEndTime()).isEqualTo(LocalTime.of(12, 0));
+        // Key lookup, space lock, the UPDATE with its conflict check, and the read for the response
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(reservationRepository.findById(reservation.getId()).orElseThrow().getEndTime())
+                .isEqualTo(LocalTime.of(12, 0));
+    }
+}